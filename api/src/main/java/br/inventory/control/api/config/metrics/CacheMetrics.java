@@ -0,0 +1,26 @@
+package br.inventory.control.api.config.metrics;
+
+import br.inventory.control.api.config.security.JwtService;
+import br.inventory.control.api.config.security.PrincipalCache;
+import br.inventory.control.api.service.ReportCacheService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the hit and miss totals the in-house caches already keep.
+ */
+@Component
+public class CacheMetrics {
+
+    private static final String HITS = "inventory_cache_hits_total";
+    private static final String MISSES = "inventory_cache_misses_total";
+
+    public CacheMetrics(MetricsRegistry registry, JwtService jwtService, PrincipalCache principalCache,
+                        ReportCacheService reportCacheService) {
+        registry.counter(HITS, "Cache lookups answered from the cache.", jwtService::getCacheHits, "cache", "jwt");
+        registry.counter(MISSES, "Cache lookups that had to compute the value.", jwtService::getCacheMisses, "cache", "jwt");
+        registry.counter(HITS, "Cache lookups answered from the cache.", principalCache::getHits, "cache", "principal");
+        registry.counter(MISSES, "Cache lookups that had to compute the value.", principalCache::getMisses, "cache", "principal");
+        registry.counter(HITS, "Cache lookups answered from the cache.", () -> reportCacheService.getStats().getHits(), "cache", "report");
+        registry.counter(MISSES, "Cache lookups that had to compute the value.", () -> reportCacheService.getStats().getMisses(), "cache", "report");
+    }
+}
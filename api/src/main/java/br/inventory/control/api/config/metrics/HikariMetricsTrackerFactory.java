@@ -0,0 +1,59 @@
+package br.inventory.control.api.config.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes HikariCP pool occupancy and connection timings, named after the Micrometer Hikari binder.
+ */
+public class HikariMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final MetricsRegistry registry;
+
+    public HikariMetricsTrackerFactory(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        registry.gauge("hikaricp_connections_active", "Connections in use.", poolStats::getActiveConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections_idle", "Idle connections.", poolStats::getIdleConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections", "Open connections.", poolStats::getTotalConnections, "pool", poolName);
+        registry.gauge("hikaricp_connections_pending", "Threads waiting for a connection.", poolStats::getPendingThreads, "pool", poolName);
+        registry.gauge("hikaricp_connections_max", "Maximum pool size.", poolStats::getMaxConnections, "pool", poolName);
+
+        MetricsRegistry.Histogram acquire = registry.timer("hikaricp_connections_acquire_seconds",
+                "Time waiting to borrow a connection from the pool.", "pool", poolName);
+        MetricsRegistry.Histogram usage = registry.timer("hikaricp_connections_usage_seconds",
+                "Time a connection was held before being returned.", "pool", poolName);
+        MetricsRegistry.Histogram creation = registry.timer("hikaricp_connections_creation_seconds",
+                "Time to open a new physical connection.", "pool", poolName);
+        MetricsRegistry.Counter timeouts = registry.counter("hikaricp_connections_timeout_total",
+                "Borrow attempts that timed out.", "pool", poolName);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creation.record(connectionCreatedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package br.inventory.control.api.config.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times calls into controllers and services, labelled with the outcome: {@code success} or the simple
+ * name of the exception thrown. Self-invocations inside a bean bypass the proxy and are not timed.
+ */
+class MethodMetricsInterceptor implements MethodInterceptor {
+
+    private record Key(Class<?> type, Method method, String outcome) {
+    }
+
+    // Resolved on first use: advisors are created while post-processors are still being registered.
+    private final ObjectProvider<MetricsRegistry> registry;
+    private final Map<Key, MetricsRegistry.Histogram> timers = new ConcurrentHashMap<>();
+
+    MethodMetricsInterceptor(ObjectProvider<MetricsRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Class<?> type = invocation.getThis() == null ? invocation.getMethod().getDeclaringClass()
+                    : ClassUtils.getUserClass(invocation.getThis());
+            timer(new Key(type, invocation.getMethod(), outcome)).recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    private MetricsRegistry.Histogram timer(Key key) {
+        MetricsRegistry.Histogram timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> registry.getObject().timer("inventory_method_seconds",
+                    "Latency of controller and service methods.",
+                    "layer", MetricsConfig.layer(k.type()),
+                    "class", k.type().getSimpleName(),
+                    "method", k.method().getName(),
+                    "outcome", k.outcome()));
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,101 @@
+package br.inventory.control.api.config.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Wires metrics into the request path, every controller and service bean, Hibernate, JDBC and the connection pool.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String BASE_PACKAGE = "br.inventory.control.api.";
+
+    static String layer(Class<?> type) {
+        return AnnotatedElementUtils.hasAnnotation(type, RestController.class) ? "controller" : "service";
+    }
+
+    // Infrastructure role, so the same auto-proxy creator that applies @Transactional picks it up; it runs
+    // outermost, which puts commit time and method security inside the measurement.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor methodMetricsAdvisor(ObjectProvider<MetricsRegistry> registry) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return targetClass.getName().startsWith(BASE_PACKAGE)
+                        && (AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)
+                        || AnnotatedElementUtils.hasAnnotation(targetClass, RestController.class))
+                        && Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class;
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new MethodMetricsInterceptor(registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    // The tracker factory can only be set before the pool starts; the pool is then wrapped so every JDBC
+    // statement, not only Hibernate's, is counted per request. The registry and counters are looked up when
+    // the data source shows up rather than injected, so they are not created while post-processors register.
+    @Bean
+    public static BeanPostProcessor dataSourceMetricsPostProcessor(ObjectProvider<MetricsRegistry> registry,
+                                                                   ObjectProvider<RequestDatabaseMetrics> requestDatabaseMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory(new HikariMetricsTrackerFactory(registry.getObject()));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new StatementCountingDataSource(dataSource, requestDatabaseMetrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static RequestDatabaseMetrics requestDatabaseMetrics() {
+        return new RequestDatabaseMetrics();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateMetricsCustomizer(RequestDatabaseMetrics requestDatabaseMetrics) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (org.hibernate.jpa.boot.spi.IntegratorProvider) () -> List.of(requestDatabaseMetrics));
+    }
+
+    // Ahead of the security filter chain, so rejected requests and authentication time are measured too.
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MetricsRegistry registry,
+                                                                            RequestDatabaseMetrics requestDatabaseMetrics) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(registry, requestDatabaseMetrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,196 @@
+package br.inventory.control.api.config.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Counters, histograms and gauges kept in memory and rendered in the Prometheus text format.
+ * Metrics are identified by name and label values; asking again for the same combination returns
+ * the same instance, so callers on hot paths should keep the instance they got.
+ */
+@Component
+public class MetricsRegistry {
+
+    /**
+     * Latency buckets in seconds, from 1 ms to 10 s.
+     */
+    public static final double[] LATENCY_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private interface Sample {
+        void write(Appendable out, String name, String labels) throws IOException;
+    }
+
+    private record Family(String help, Type type, Map<String, Sample> samples) {
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    public static final class Counter implements Sample {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void increment(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        public void write(Appendable out, String name, String labels) throws IOException {
+            out.append(name).append(labels).append(' ').append(Long.toString(value.sum())).append('\n');
+        }
+    }
+
+    public static final class Histogram implements Sample {
+        private final double[] buckets;
+        private final LongAdder[] counts;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Histogram(double[] buckets) {
+            this.buckets = buckets;
+            this.counts = new LongAdder[buckets.length];
+            Arrays.setAll(counts, i -> new LongAdder());
+        }
+
+        public void observe(double value) {
+            int bucket = Arrays.binarySearch(buckets, value);
+            if (bucket < 0) {
+                bucket = -bucket - 1;
+            }
+            if (bucket < buckets.length) {
+                counts[bucket].increment();
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        public void recordNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+
+        public void record(long amount, TimeUnit unit) {
+            recordNanos(unit.toNanos(amount));
+        }
+
+        @Override
+        public void write(Appendable out, String name, String labels) throws IOException {
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += counts[i].sum();
+                out.append(name).append("_bucket").append(withLabel(labels, "le", format(buckets[i])))
+                        .append(' ').append(Long.toString(cumulative)).append('\n');
+            }
+            // Read once, so +Inf and _count agree even while observations arrive.
+            long total = Math.max(count.sum(), cumulative);
+            out.append(name).append("_bucket").append(withLabel(labels, "le", "+Inf")).append(' ').append(Long.toString(total)).append('\n');
+            out.append(name).append("_sum").append(labels).append(' ').append(format(sum.sum())).append('\n');
+            out.append(name).append("_count").append(labels).append(' ').append(Long.toString(total)).append('\n');
+        }
+    }
+
+    private record Function(DoubleSupplier value) implements Sample {
+        @Override
+        public void write(Appendable out, String name, String labels) throws IOException {
+            out.append(name).append(labels).append(' ').append(format(value.getAsDouble())).append('\n');
+        }
+    }
+
+    /**
+     * @param labels label names and values, alternating
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) sample(name, help, Type.COUNTER, labels, Counter::new);
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) sample(name, help, Type.HISTOGRAM, labels, () -> new Histogram(buckets));
+    }
+
+    /**
+     * A histogram of durations in seconds with {@link #LATENCY_BUCKETS}; by convention its name ends in {@code _seconds}.
+     */
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, LATENCY_BUCKETS, labels);
+    }
+
+    /**
+     * A counter whose value is read from {@code value} at each scrape, for totals already kept elsewhere.
+     */
+    public void counter(String name, String help, DoubleSupplier value, String... labels) {
+        sample(name, help, Type.COUNTER, labels, () -> new Function(value));
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        sample(name, help, Type.GAUGE, labels, () -> new Function(value));
+    }
+
+    public void scrape(Appendable out) throws IOException {
+        for (Map.Entry<String, Family> family : new TreeMap<>(families).entrySet()) {
+            String name = family.getKey();
+            out.append("# HELP ").append(name).append(' ').append(family.getValue().help()).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.getValue().type().name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Sample> sample : new TreeMap<>(family.getValue().samples()).entrySet()) {
+                sample.getValue().write(out, name, sample.getKey());
+            }
+        }
+    }
+
+    private Sample sample(String name, String help, Type type, String[] labels, java.util.function.Supplier<Sample> factory) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type, new ConcurrentHashMap<>()));
+        if (family.type() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type());
+        }
+        return family.samples().computeIfAbsent(labels(labels), key -> factory.get());
+    }
+
+    private static String labels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name and value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder rendered = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                rendered.append(',');
+            }
+            rendered.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return rendered.append('}').toString();
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,80 @@
+package br.inventory.control.api.config.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Counts the database work done for the current request: JDBC statements executed through the data
+ * source, whether issued by Hibernate or by {@code JdbcTemplate}, and the entities and lazy collections
+ * Hibernate loaded. Counting only happens between {@link #begin()} and {@link #end()} on the same
+ * thread; work outside a request, or handed to another thread, is ignored.
+ */
+public class RequestDatabaseMetrics implements PostLoadEventListener, InitializeCollectionEventListener, Integrator {
+
+    public record Counts(long statements, long entityLoads, long collectionFetches) {
+    }
+
+    private static final class Counter {
+        long statements;
+        long entityLoads;
+        long collectionFetches;
+    }
+
+    private final ThreadLocal<Counter> current = new ThreadLocal<>();
+
+    public void begin() {
+        current.set(new Counter());
+    }
+
+    public Counts end() {
+        Counter counter = current.get();
+        current.remove();
+        return counter == null ? new Counts(0, 0, 0) : new Counts(counter.statements, counter.entityLoads, counter.collectionFetches);
+    }
+
+    /**
+     * Called by {@link StatementCountingDataSource} for each execution; a JDBC batch counts once.
+     */
+    void statementExecuted() {
+        Counter counter = current.get();
+        if (counter != null) {
+            counter.statements++;
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counter counter = current.get();
+        if (counter != null) {
+            counter.entityLoads++;
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        Counter counter = current.get();
+        if (counter != null) {
+            counter.collectionFetches++;
+        }
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
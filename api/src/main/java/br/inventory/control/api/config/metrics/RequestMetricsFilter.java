@@ -0,0 +1,61 @@
+package br.inventory.control.api.config.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times each HTTP request by route and status, and records how much database work it caused.
+ * Streaming responses are timed until the handler returns, not until the last byte is written.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] COUNT_BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final MetricsRegistry registry;
+    private final RequestDatabaseMetrics databaseMetrics;
+    private final MetricsRegistry.Histogram statements;
+    private final MetricsRegistry.Histogram entityLoads;
+    private final MetricsRegistry.Histogram collectionFetches;
+
+    public RequestMetricsFilter(MetricsRegistry registry, RequestDatabaseMetrics databaseMetrics) {
+        this.registry = registry;
+        this.databaseMetrics = databaseMetrics;
+        this.statements = registry.histogram("jdbc_request_statements",
+                "JDBC statements executed per HTTP request, by Hibernate or JdbcTemplate; a batch counts once.", COUNT_BUCKETS);
+        this.entityLoads = registry.histogram("hibernate_request_entity_loads",
+                "Entities loaded by Hibernate per HTTP request.", COUNT_BUCKETS);
+        this.collectionFetches = registry.histogram("hibernate_request_collection_fetches",
+                "Lazy collections initialized by Hibernate per HTTP request.", COUNT_BUCKETS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        databaseMetrics.begin();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            RequestDatabaseMetrics.Counts counts = databaseMetrics.end();
+            statements.observe(counts.statements());
+            entityLoads.observe(counts.entityLoads());
+            collectionFetches.observe(counts.collectionFetches());
+
+            // The matched route keeps path variables out of the labels; unmatched paths share one series.
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            registry.timer("http_server_requests_seconds", "HTTP request latency by route and status.",
+                            "method", request.getMethod(),
+                            "uri", route == null ? "UNMATCHED" : route.toString(),
+                            "status", Integer.toString(status))
+                    .recordNanos(System.nanoTime() - start);
+        }
+    }
+}
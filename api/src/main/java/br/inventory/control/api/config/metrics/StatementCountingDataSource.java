@@ -0,0 +1,72 @@
+package br.inventory.control.api.config.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out connections whose statements report each execution to {@link RequestDatabaseMetrics}.
+ * Everything else, including {@code unwrap} to the driver's own connection, goes straight to the pool.
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final RequestDatabaseMetrics metrics;
+
+    StatementCountingDataSource(DataSource target, RequestDatabaseMetrics metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, (Statement) result, countingExecutions(result));
+                case "prepareStatement" -> proxy(PreparedStatement.class, (PreparedStatement) result, countingExecutions(result));
+                case "prepareCall" -> proxy(CallableStatement.class, (CallableStatement) result, countingExecutions(result));
+                default -> result;
+            };
+        });
+    }
+
+    private InvocationHandler countingExecutions(Object statement) {
+        return (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                metrics.statementExecuted();
+            }
+            return invoke(statement, method, args);
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,35 @@
+package br.inventory.control.api.config.metrics;
+
+import br.inventory.control.api.model.MovementType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts stock movements by type, keeping exits refused for insufficient stock apart from the ones recorded.
+ */
+@Component
+public class StockMovementMetrics {
+
+    private static final String NAME = "inventory_stock_movements_total";
+    private static final String HELP = "Stock movements by type and outcome.";
+
+    private final Map<MovementType, MetricsRegistry.Counter> recorded = new EnumMap<>(MovementType.class);
+    private final Map<MovementType, MetricsRegistry.Counter> insufficientStock = new EnumMap<>(MovementType.class);
+
+    public StockMovementMetrics(MetricsRegistry registry) {
+        for (MovementType type : MovementType.values()) {
+            recorded.put(type, registry.counter(NAME, HELP, "type", type.name(), "outcome", "recorded"));
+            insufficientStock.put(type, registry.counter(NAME, HELP, "type", type.name(), "outcome", "insufficient_stock"));
+        }
+    }
+
+    public void recorded(MovementType type) {
+        recorded.get(type).increment();
+    }
+
+    public void insufficientStock(MovementType type) {
+        insufficientStock.get(type).increment();
+    }
+}
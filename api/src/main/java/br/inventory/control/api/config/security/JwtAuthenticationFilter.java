@@ -1,16 +1,17 @@
 package br.inventory.control.api.config.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,7 +23,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final PermissionsVersionRegistry permissionsVersionRegistry;
+
+    @Value("${security.stateless.enabled:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -42,25 +47,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                UserPrincipal principal = resolvePrincipal(claims);
+                if (jwtService.isTokenValid(claims, principal)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
         } catch (JwtException e) {
-            logger.debug("JWT Token invalid or expired: {}");
+            logger.debug("JWT Token invalid or expired: " + e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            logger.debug("JWT Token subject no longer exists: " + e.getMessage());
         }
 
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // In stateless mode the principal comes from the token itself; the database is only consulted
+    // when the user's permissions changed after the token was issued.
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        if (stateless) {
+            UserPrincipal principal = UserPrincipal.fromClaims(claims);
+            Number version = claims.get(JwtService.CLAIM_PERMISSIONS_VERSION, Number.class);
+            if (principal != null && version != null && permissionsVersionRegistry.isCurrent(principal.getId(), version.longValue())) {
+                return principal;
+            }
+        }
+        return principalCache.get(claims.getSubject());
+    }
+}
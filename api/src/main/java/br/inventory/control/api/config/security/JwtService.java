@@ -1,30 +1,67 @@
 package br.inventory.control.api.config.security;
 
+import br.inventory.control.api.model.Category;
 import br.inventory.control.api.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_CATEGORY_IDS = "cats";
+    public static final String CLAIM_PERMISSIONS_VERSION = "pv";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private Key signInKey;
+    private JwtParser parser;
+
+    // Validated tokens keyed by SHA-256 digest; each entry lives until the token's own exp.
+    private final Map<String, CachedClaims> validatedTokens = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,8 +75,11 @@ public class JwtService {
         Map<String, Object> extraClaims = new HashMap<>();
         if (userDetails instanceof User) {
             User user = (User) userDetails;
-            extraClaims.put("name", user.getName());
-            extraClaims.put("role", user.getRole().name());
+            extraClaims.put(CLAIM_NAME, user.getName());
+            extraClaims.put(CLAIM_ROLE, user.getRole().name());
+            extraClaims.put(CLAIM_USER_ID, user.getId());
+            extraClaims.put(CLAIM_CATEGORY_IDS, user.getAllowedCategories().stream().map(Category::getId).toList());
+            extraClaims.put(CLAIM_PERMISSIONS_VERSION, user.getPermissionsVersion() == null ? 0L : user.getPermissionsVersion());
         }
         return generateToken(extraClaims, userDetails);
     }
@@ -55,34 +95,75 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verifies the token signature and expiration once and returns its claims. Subsequent calls
+     * with the same token are served from the cache until the token expires.
+     */
+    public Claims extractAllClaims(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        CachedClaims cached = validatedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                cacheHits.increment();
+                return cached.claims();
+            }
+            validatedTokens.remove(digest, cached);
+        }
+
+        cacheMisses.increment();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            if (validatedTokens.size() >= cacheMaxSize) {
+                evictExpiredTokens();
+            }
+            if (validatedTokens.size() < cacheMaxSize) {
+                validatedTokens.put(digest, new CachedClaims(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return claims;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @Scheduled(fixedDelayString = "${jwt.cache.cleanup-interval-ms:60000}")
+    public void evictExpiredTokens() {
+        long now = System.currentTimeMillis();
+        validatedTokens.values().removeIf(cached -> cached.expiresAtMillis() <= now);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public void clearCache() {
+        validatedTokens.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public int getCacheSize() {
+        return validatedTokens.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package br.inventory.control.api.config.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the minimum permissions version an access token must carry for each user whose
+ * permissions changed since startup. Tokens issued before the change are rejected on the stateless
+ * path; users absent from the registry are trusted up to their token's expiration.
+ */
+@Component
+public class PermissionsVersionRegistry {
+
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final Map<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long minimum = minimumVersions.get(userId);
+        return minimum == null || tokenVersion >= minimum;
+    }
+
+    public void register(Long userId, long version) {
+        minimumVersions.merge(userId, version, Math::max);
+    }
+
+    public void revoke(Long userId) {
+        minimumVersions.put(userId, REVOKED);
+    }
+}
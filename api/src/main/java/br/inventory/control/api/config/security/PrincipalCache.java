@@ -0,0 +1,73 @@
+package br.inventory.control.api.config.security;
+
+import br.inventory.control.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of {@link UserPrincipal} snapshots by email, so steady-state requests
+ * authenticate and authorize without reading the users table. Entries are invalidated when a user
+ * or the categories they are allowed to manage change.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record CachedPrincipal(UserPrincipal principal, long expiresAtMillis) {
+    }
+
+    public UserPrincipal get(String email) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.principal();
+        }
+
+        misses.increment();
+        UserPrincipal principal = userRepository.findByEmail(email)
+                .map(UserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        if (principals.size() >= maxSize) {
+            principals.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        }
+        if (principals.size() < maxSize) {
+            principals.put(email, new CachedPrincipal(principal, now + ttlMs));
+        }
+        return principal;
+    }
+
+    public void invalidate(String email) {
+        principals.remove(email);
+    }
+
+    public void invalidateAll() {
+        principals.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
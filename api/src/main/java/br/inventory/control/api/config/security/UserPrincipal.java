@@ -0,0 +1,83 @@
+package br.inventory.control.api.config.security;
+
+import br.inventory.control.api.model.Category;
+import br.inventory.control.api.model.Role;
+import br.inventory.control.api.model.User;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the authenticated user, holding only what authorization decisions need.
+ * Shared between requests through {@link PrincipalCache}.
+ */
+@Getter
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final Role role;
+    private final Set<Long> allowedCategoryIds;
+
+    public UserPrincipal(Long id, String email, String name, Role role, Set<Long> allowedCategoryIds) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.allowedCategoryIds = Set.copyOf(allowedCategoryIds);
+    }
+
+    public static UserPrincipal from(User user) {
+        Set<Long> categoryIds = user.getAllowedCategories().stream().map(Category::getId).collect(Collectors.toSet());
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getName(), user.getRole(), categoryIds);
+    }
+
+    /**
+     * Rebuilds the principal from the claims written by {@link JwtService#generateToken}, or returns
+     * null when the token predates those claims.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        List<?> categoryIds = claims.get(JwtService.CLAIM_CATEGORY_IDS, List.class);
+        if (userId == null || role == null || categoryIds == null) {
+            return null;
+        }
+        Set<Long> allowedCategoryIds = categoryIds.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toSet());
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), claims.get(JwtService.CLAIM_NAME, String.class),
+                Role.valueOf(role), allowedCategoryIds);
+    }
+
+    public boolean canAccessAllCategories() {
+        return role == Role.ADMIN || allowedCategoryIds.isEmpty();
+    }
+
+    public boolean canAccessCategory(Long categoryId) {
+        return canAccessAllCategories() || allowedCategoryIds.contains(categoryId);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
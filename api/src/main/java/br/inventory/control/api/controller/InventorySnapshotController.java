@@ -0,0 +1,54 @@
+package br.inventory.control.api.controller;
+
+import br.inventory.control.api.dto.InventorySnapshotRestoreDTO;
+import br.inventory.control.api.service.InventorySnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/inventory-snapshots")
+@RequiredArgsConstructor
+@Tag(name = "Inventory snapshots", description = "Endpoints for exporting and restoring categories, products and stock movements")
+@SecurityRequirement(name = "bearerAuth")
+public class InventorySnapshotController {
+
+    private final InventorySnapshotService inventorySnapshotService;
+
+    @Operation(summary = "Export an inventory snapshot", description = "Streams all categories, products and stock movements, read at a single point in time, as a gzip-compressed versioned snapshot. Access restricted to ADMIN.")
+    @ApiResponse(responseCode = "200", description = "Export started")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        StreamingResponseBody body = inventorySnapshotService::export;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory-" + LocalDate.now() + ".snapshot.gz\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Restore an inventory snapshot", description = "Replaces all categories, products and stock movements with those of an exported snapshot in a single transaction. Category assignments of users to categories missing from the snapshot are removed. Not available while hot SKU mode is enabled or a price adjustment job is running. Access restricted to ADMIN.")
+    @ApiResponse(responseCode = "200", description = "Snapshot restored")
+    @ApiResponse(responseCode = "400", description = "Invalid or inconsistent snapshot, or restore not possible right now")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PostMapping(value = "/restore", consumes = {"application/gzip", "application/octet-stream"})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<InventorySnapshotRestoreDTO> restoreSnapshot(InputStream body) {
+        return ResponseEntity.ok(inventorySnapshotService.restore(body));
+    }
+}
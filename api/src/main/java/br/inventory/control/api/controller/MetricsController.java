@@ -0,0 +1,38 @@
+package br.inventory.control.api.controller;
+
+import br.inventory.control.api.config.metrics.MetricsRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "Prometheus scrape endpoint")
+@SecurityRequirement(name = "bearerAuth")
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Operation(summary = "Scrape metrics", description = "Returns request, method, stock movement, Hibernate, connection pool and cache metrics in the Prometheus text exposition format. Access restricted to ADMIN, or to the bearer token set in inventory.metrics.scrape-token.")
+    @ApiResponse(responseCode = "200", description = "Metrics rendered successfully")
+    @ApiResponse(responseCode = "401", description = "Not authenticated")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping(produces = "text/plain")
+    public ResponseEntity<String> scrape() throws IOException {
+        StringBuilder body = new StringBuilder(16 * 1024);
+        metricsRegistry.scrape(body);
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body.toString());
+    }
+}
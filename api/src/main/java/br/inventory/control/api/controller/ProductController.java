@@ -1,19 +1,30 @@
 package br.inventory.control.api.controller;
 
 import br.inventory.control.api.dto.PriceAdjustmentDTO;
+import br.inventory.control.api.dto.PriceAdjustmentJobDTO;
 import br.inventory.control.api.dto.ProductDTO;
+import br.inventory.control.api.dto.ProductImportResultDTO;
+import br.inventory.control.api.dto.ProductPageDTO;
+import br.inventory.control.api.dto.ReportFormat;
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+import br.inventory.control.api.dto.StockMovementPageDTO;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.service.PriceAdjustmentJobService;
+import br.inventory.control.api.service.ProductImportService;
 import br.inventory.control.api.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/products")
@@ -23,6 +34,8 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final PriceAdjustmentJobService priceAdjustmentJobService;
+    private final ProductImportService productImportService;
 
     @Operation(summary = "Create a new product", description = "Creates a new product. EMPLOYEEs are restricted to their assigned categories.")
     @ApiResponse(responseCode = "201", description = "Product created successfully")
@@ -33,6 +46,15 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productDTO), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Import products", description = "Creates products from a CSV (header line with name, unitPrice, unitOfMeasure, quantityInStock, minStockQuantity, maxStockQuantity and categoryId or categoryName) or NDJSON body, reading rows as they arrive. Valid rows are imported in batches; the response lists rejected rows and the import throughput. EMPLOYEEs are restricted to their assigned categories.")
+    @ApiResponse(responseCode = "200", description = "Import finished; see rejected rows in the report")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ProductImportResultDTO> importProducts(@RequestParam(defaultValue = "csv") String format, InputStream body) {
+        return ResponseEntity.ok(productImportService.importProducts(body, ReportFormat.from(format)));
+    }
+
     @Operation(summary = "Get product by ID", description = "Fetches a single product by its ID. EMPLOYEEs are restricted to their assigned categories.")
     @ApiResponse(responseCode = "200", description = "Product found")
     @ApiResponse(responseCode = "404", description = "Product not found")
@@ -42,22 +64,77 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
-    @Operation(summary = "List all products", description = "Lists all products. EMPLOYEEs will only see products from their assigned categories.")
+    @Operation(summary = "List product movements", description = "Lists the movements of a product, newest first, one page at a time. Pass the returned nextCursor to fetch the following page. The optional from (inclusive) and to (exclusive) bounds are ISO date-times. EMPLOYEEs are restricted to their assigned categories.")
+    @ApiResponse(responseCode = "200", description = "Movements listed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or filter")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<StockMovementPageDTO> getProductMovements(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) MovementType type) {
+        return ResponseEntity.ok(productService.getProductMovements(id, cursor, size, from, to, type));
+    }
+
+    @Operation(summary = "Get product stock balance at a point in time", description = "Returns the quantity on hand of a product at the given ISO date-time, valued at the current unit price. EMPLOYEEs are restricted to their assigned categories.")
+    @ApiResponse(responseCode = "200", description = "Balance computed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid date")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/{id}/stock-balance")
+    public ResponseEntity<StockBalanceItemDTO> getStockBalanceAsOf(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(productService.getStockBalanceAsOf(id, asOf));
+    }
+
+    @Operation(summary = "List products", description = "Lists products ordered by name, one page at a time. Pass the returned nextCursor to fetch the following page. EMPLOYEEs will only see products from their assigned categories.")
     @ApiResponse(responseCode = "200", description = "Products listed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
     @ApiResponse(responseCode = "403", description = "Access denied")
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<ProductPageDTO> getProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            @RequestParam(required = false) String namePrefix) {
+        return ResponseEntity.ok(productService.getProducts(cursor, size, categoryId, lowStock, namePrefix));
     }
 
-    @Operation(summary = "Adjust all product prices", description = "Adjusts the price of all products by a given percentage. Access restricted to ADMIN.")
-    @ApiResponse(responseCode = "200", description = "Prices adjusted successfully")
+    @Operation(summary = "Start a product price adjustment", description = "Starts a background job that adjusts product prices by a given percentage, optionally only in one category. Poll the returned job for progress. Access restricted to ADMIN.")
+    @ApiResponse(responseCode = "202", description = "Price adjustment started")
+    @ApiResponse(responseCode = "400", description = "Invalid percentage")
+    @ApiResponse(responseCode = "404", description = "Category not found")
     @ApiResponse(responseCode = "403", description = "Access denied")
     @PostMapping("/adjust-price")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<String> adjustPrice(@RequestBody PriceAdjustmentDTO priceAdjustmentDTO) {
-        productService.adjustAllPrices(priceAdjustmentDTO);
-        return ResponseEntity.ok("Product prices adjusted successfully by " + priceAdjustmentDTO.getPercentage() + "%.");
+    public ResponseEntity<PriceAdjustmentJobDTO> adjustPrice(@RequestBody PriceAdjustmentDTO priceAdjustmentDTO) {
+        return ResponseEntity.accepted().body(priceAdjustmentJobService.start(priceAdjustmentDTO));
+    }
+
+    @Operation(summary = "Get a price adjustment job", description = "Returns the status and progress of a price adjustment job. Access restricted to ADMIN.")
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/adjust-price/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<PriceAdjustmentJobDTO> getPriceAdjustmentJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(priceAdjustmentJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "Cancel a price adjustment job", description = "Stops a running price adjustment after its current chunk. Prices already adjusted are kept. Access restricted to ADMIN.")
+    @ApiResponse(responseCode = "200", description = "Job cancelled, or already finished")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PostMapping("/adjust-price/jobs/{jobId}/cancel")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<PriceAdjustmentJobDTO> cancelPriceAdjustmentJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(priceAdjustmentJobService.cancel(jobId));
     }
 
     @Operation(summary = "Update an existing product")
@@ -1,17 +1,38 @@
 package br.inventory.control.api.controller;
 
 import br.inventory.control.api.dto.*;
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.service.LowStockService;
+import br.inventory.control.api.service.ReportCacheService;
+import br.inventory.control.api.service.ReportJobService;
 import br.inventory.control.api.service.ReportService;
+import br.inventory.control.api.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +44,11 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final UserService userService;
+    private final LowStockService lowStockService;
+    private final ReportJobService reportJobService;
+    private final ReportCacheService reportCacheService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Get price list report", description = "Returns a list of all visible products with their prices and categories.")
     @ApiResponse(responseCode = "200", description = "Report generated successfully")
@@ -32,12 +58,15 @@ public class ReportController {
         return ResponseEntity.ok(reportService.getPriceList());
     }
 
-    @Operation(summary = "Get stock balance report", description = "Returns the physical quantity and total financial value of each product in stock.")
+    @Operation(summary = "Get stock balance report", description = "Returns the physical quantity and total financial value of each product in stock, optionally for one category. With asOf (ISO date-time) the quantities are those on hand at that time, valued at current prices.")
     @ApiResponse(responseCode = "200", description = "Report generated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid date")
     @ApiResponse(responseCode = "403", description = "Access denied")
     @GetMapping("/stock-balance")
-    public ResponseEntity<List<StockBalanceItemDTO>> getStockBalance() {
-        return ResponseEntity.ok(reportService.getStockBalance());
+    public ResponseEntity<List<StockBalanceItemDTO>> getStockBalance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @RequestParam(required = false) Long categoryId) {
+        return ResponseEntity.ok(reportService.getStockBalance(asOf, categoryId));
     }
 
     @Operation(summary = "Get products below minimum stock", description = "Lists all products whose quantity in stock is below the defined minimum.")
@@ -48,6 +77,14 @@ public class ReportController {
         return ResponseEntity.ok(reportService.getProductsBelowMinStock());
     }
 
+    @Operation(summary = "Subscribe to below-minimum transitions", description = "Server-sent events emitted when a visible product crosses below its minimum stock (BELOW_MIN) or recovers (RECOVERED). A reset event means transitions were dropped because the client fell behind, and it should reload the list.")
+    @ApiResponse(responseCode = "200", description = "Subscription opened")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping(value = "/below-min-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBelowMinStockTransitions() {
+        return lowStockService.subscribe(userService.getAuthenticatedUser());
+    }
+
     @Operation(summary = "Get product count by category", description = "Returns the count of distinct products for each category.")
     @ApiResponse(responseCode = "200", description = "Report generated successfully")
     @ApiResponse(responseCode = "403", description = "Access denied")
@@ -61,8 +98,104 @@ public class ReportController {
     @ApiResponse(responseCode = "403", description = "Access denied")
     @GetMapping("/top-movement-products")
     public ResponseEntity<Map<String, TopMovementProductDTO>> getTopMovementProducts() {
-        TopMovementProductDTO topEntry = reportService.getTopEntryProduct();
-        TopMovementProductDTO topExit = reportService.getTopExitProduct();
-        return ResponseEntity.ok(Map.of("topEntryProduct", topEntry, "topExitProduct", topExit));
+        return ResponseEntity.ok(reportService.getTopMovementProductsSummary());
+    }
+
+    @Operation(summary = "Get top products for a time window", description = "Returns the N products with the most movements of the given type in a relative window (e.g. 24h, 7d) or an explicit from/to range, ranked by movement count or quantity.")
+    @ApiResponse(responseCode = "200", description = "Report generated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid window or metric")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/top-movements")
+    public ResponseEntity<List<TopMovementProductDTO>> getTopMovements(
+            @RequestParam MovementType type,
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "count") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.getTopMovementProducts(type, window, from, to, metric, limit));
+    }
+
+    @Operation(summary = "Export price list report", description = "Streams the price list as CSV or NDJSON while it is read from the database.")
+    @ApiResponse(responseCode = "200", description = "Export started")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/price-list/export")
+    public ResponseEntity<StreamingResponseBody> exportPriceList(@RequestParam(defaultValue = "csv") String format) {
+        ReportFormat reportFormat = ReportFormat.from(format);
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        StreamingResponseBody body = out -> {
+            ReportStreamWriter writer = new ReportStreamWriter(out, reportFormat, objectMapper, "productName", "unitPrice", "categoryName");
+            reportService.streamPriceList(currentUser, item ->
+                    writer.write(item, item.getProductName(), item.getUnitPrice(), item.getCategoryName()));
+            writer.finish();
+        };
+        return exportResponse("price-list", reportFormat, body);
+    }
+
+    @Operation(summary = "Export stock balance report", description = "Streams the stock balance as CSV or NDJSON while it is read from the database.")
+    @ApiResponse(responseCode = "200", description = "Export started")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/stock-balance/export")
+    public ResponseEntity<StreamingResponseBody> exportStockBalance(@RequestParam(defaultValue = "csv") String format) {
+        ReportFormat reportFormat = ReportFormat.from(format);
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        StreamingResponseBody body = out -> {
+            ReportStreamWriter writer = new ReportStreamWriter(out, reportFormat, objectMapper, "productName", "quantityInStock", "totalValue");
+            reportService.streamStockBalance(currentUser, item ->
+                    writer.write(item, item.getProductName(), item.getQuantityInStock(), item.getTotalValue()));
+            writer.finish();
+        };
+        return exportResponse("stock-balance", reportFormat, body);
+    }
+
+    @Operation(summary = "Start a report job", description = "Computes a report in the background and returns the job to poll. The result is kept for a limited time after the job finishes. Each user may have a limited number of jobs queued or running.")
+    @ApiResponse(responseCode = "202", description = "Report job accepted")
+    @ApiResponse(responseCode = "400", description = "Invalid report request")
+    @ApiResponse(responseCode = "429", description = "Too many report jobs for this user, or the report queue is full")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobDTO> submitReportJob(@RequestBody ReportJobRequestDTO request) {
+        return ResponseEntity.accepted().body(reportJobService.submit(userService.getAuthenticatedUser(), request));
+    }
+
+    @Operation(summary = "Get a report job", description = "Returns the status of one of the caller's report jobs.")
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(userService.getAuthenticatedUser(), jobId));
+    }
+
+    @Operation(summary = "Download a report job result", description = "Returns the JSON result of a completed report job, the same body the synchronous endpoint returns.")
+    @ApiResponse(responseCode = "200", description = "Result returned")
+    @ApiResponse(responseCode = "400", description = "Job has not completed")
+    @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<Resource> getReportJobResult(@PathVariable String jobId) {
+        Path result = reportJobService.getResult(userService.getAuthenticatedUser(), jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + jobId + ".json\"")
+                .body(new FileSystemResource(result));
+    }
+
+    @Operation(summary = "Get report cache statistics", description = "Returns the number of cached report results, hits and misses per report, and how many entries writes have invalidated since startup.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ReportCacheStatsDTO> getReportCacheStats() {
+        return ResponseEntity.ok(reportCacheService.getStats());
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ReportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package br.inventory.control.api.controller;
+
+import br.inventory.control.api.dto.ReportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes report rows to the response one at a time, as CSV lines or NDJSON objects. The first row
+ * is flushed immediately so clients start receiving data before the query finishes.
+ */
+class ReportStreamWriter {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final Writer writer;
+    private final ReportFormat format;
+    private final ObjectWriter jsonWriter;
+    private long rows;
+
+    ReportStreamWriter(OutputStream out, ReportFormat format, ObjectMapper objectMapper, String... csvHeader) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.jsonWriter = objectMapper.writer();
+        if (format == ReportFormat.CSV) {
+            writeCsvLine((Object[]) csvHeader);
+        }
+    }
+
+    void write(Object row, Object... csvValues) {
+        try {
+            if (format == ReportFormat.CSV) {
+                writeCsvLine(csvValues);
+            } else {
+                writer.write(jsonWriter.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++rows == 1 || rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvLine(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,5 +1,6 @@
 package br.inventory.control.api.controller;
 
+import br.inventory.control.api.dto.StockMovementBatchResponseDTO;
 import br.inventory.control.api.dto.StockMovementDTO;
 import br.inventory.control.api.dto.StockMovementResponseDTO;
 import br.inventory.control.api.service.StockMovementService;
@@ -15,6 +16,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/stock-movements")
 @RequiredArgsConstructor
@@ -42,4 +45,12 @@ public class StockMovementController {
         StockMovementResponseDTO response = stockMovementService.registerExit(movementDTO);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
+
+    @Operation(summary = "Register a batch of stock movements", description = "Applies a list of entries and exits in a single transaction. Each line reports its own outcome; rejected lines do not affect the others.")
+    @ApiResponse(responseCode = "200", description = "Batch processed. Check the status of each line.")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PostMapping("/batch")
+    public ResponseEntity<StockMovementBatchResponseDTO> registerBatch(@RequestBody List<StockMovementDTO> movementDTOs) {
+        return ResponseEntity.ok(stockMovementService.registerBatch(movementDTOs));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package br.inventory.control.api.controller;
+
+import br.inventory.control.api.service.StockStreamService;
+import br.inventory.control.api.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Tag(name = "Streams", description = "Server-sent event feeds")
+@SecurityRequirement(name = "bearerAuth")
+public class StockStreamController {
+
+    private final StockStreamService stockStreamService;
+    private final UserService userService;
+
+    @Operation(summary = "Subscribe to stock changes", description = "Server-sent events with the product id, category id, new quantity and threshold crossing (BELOW_MIN, RECOVERED, ABOVE_MAX) of each committed stock change in the caller's categories. Reconnect with Last-Event-ID (header or lastEventId parameter) to receive missed changes; a reset event means they are no longer available and the client should reload.")
+    @ApiResponse(responseCode = "200", description = "Subscription opened")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @GetMapping(value = "/stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStock(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                  @RequestParam(required = false) String lastEventId) {
+        return stockStreamService.subscribe(userService.getAuthenticatedUser(),
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
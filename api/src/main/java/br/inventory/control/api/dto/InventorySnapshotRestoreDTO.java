@@ -0,0 +1,14 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data @AllArgsConstructor
+public class InventorySnapshotRestoreDTO {
+    private Instant snapshotCreatedAt;
+    private Map<String, Long> rowsRestored;
+    private long elapsedMs;
+}
@@ -0,0 +1,19 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data @AllArgsConstructor
+public class LowStockTransitionDTO {
+    public enum Transition { BELOW_MIN, RECOVERED }
+
+    private Transition transition;
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private int quantityInStock;
+    private int minStockQuantity;
+    private Instant occurredAt;
+}
@@ -6,4 +6,5 @@ import java.math.BigDecimal;
 @Data
 public class PriceAdjustmentDTO {
     private BigDecimal percentage;
-}
\ No newline at end of file
+    private Long categoryId;
+}
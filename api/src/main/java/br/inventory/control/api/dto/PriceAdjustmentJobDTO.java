@@ -0,0 +1,27 @@
+package br.inventory.control.api.dto;
+
+import br.inventory.control.api.model.PriceAdjustmentJob;
+import br.inventory.control.api.model.PriceAdjustmentJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data @AllArgsConstructor
+public class PriceAdjustmentJobDTO {
+    private Long id;
+    private BigDecimal percentage;
+    private Long categoryId;
+    private PriceAdjustmentJobStatus status;
+    private long updatedCount;
+    private long totalCount;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public static PriceAdjustmentJobDTO from(PriceAdjustmentJob job) {
+        return new PriceAdjustmentJobDTO(job.getId(), job.getPercentage(), job.getCategoryId(), job.getStatus(),
+                job.getUpdatedCount(), job.getTotalCount(), job.getErrorMessage(), job.getCreatedAt(), job.getFinishedAt());
+    }
+}
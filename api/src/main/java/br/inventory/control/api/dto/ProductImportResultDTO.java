@@ -0,0 +1,23 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class ProductImportResultDTO {
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package br.inventory.control.api.dto;
+
+import br.inventory.control.api.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class ProductStockLevelDTO {
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private int quantityInStock;
+    private int minStockQuantity;
+    private int maxStockQuantity;
+
+    public static ProductStockLevelDTO from(Product product) {
+        return new ProductStockLevelDTO(product.getId(), product.getName(), product.getCategory().getId(),
+                product.getQuantityInStock(), product.getMinStockQuantity(), product.getMaxStockQuantity());
+    }
+}
@@ -0,0 +1,21 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data @AllArgsConstructor
+public class ReportCacheStatsDTO {
+    private int entries;
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private Map<ReportType, Counts> reports;
+
+    @Data @AllArgsConstructor
+    public static class Counts {
+        private long hits;
+        private long misses;
+    }
+}
@@ -0,0 +1,24 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data @AllArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private ReportType type;
+    private Status status;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private Instant expiresAt;
+    private String errorMessage;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,24 @@
+package br.inventory.control.api.dto;
+
+import br.inventory.control.api.model.MovementType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A report to compute in the background. Besides {@code type}, only the parameters of the matching
+ * synchronous endpoint are read: asOf/categoryId for STOCK_BALANCE and
+ * movementType/window/from/to/metric/limit for TOP_MOVEMENTS.
+ */
+@Data
+public class ReportJobRequestDTO {
+    private ReportType type;
+    private LocalDateTime asOf;
+    private Long categoryId;
+    private MovementType movementType;
+    private String window;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String metric;
+    private Integer limit;
+}
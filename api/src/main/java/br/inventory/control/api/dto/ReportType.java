@@ -0,0 +1,10 @@
+package br.inventory.control.api.dto;
+
+public enum ReportType {
+    PRICE_LIST,
+    STOCK_BALANCE,
+    BELOW_MIN_STOCK,
+    PRODUCT_COUNT_BY_CATEGORY,
+    TOP_MOVEMENT_PRODUCTS,
+    TOP_MOVEMENTS
+}
@@ -0,0 +1,14 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class StockDeltaDTO {
+    public enum Crossing { BELOW_MIN, RECOVERED, ABOVE_MAX }
+
+    private Long productId;
+    private Long categoryId;
+    private int quantityInStock;
+    private Crossing crossing;
+}
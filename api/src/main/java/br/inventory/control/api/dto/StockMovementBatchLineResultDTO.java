@@ -0,0 +1,25 @@
+package br.inventory.control.api.dto;
+
+import br.inventory.control.api.model.MovementType;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StockMovementBatchLineResultDTO {
+    private int line;
+    private Long productId;
+    private MovementType type;
+    private int quantity;
+    private Status status;
+    private Integer quantityInStock;
+    private String message;
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        FORBIDDEN_CATEGORY,
+        PRODUCT_NOT_FOUND,
+        INVALID
+    }
+}
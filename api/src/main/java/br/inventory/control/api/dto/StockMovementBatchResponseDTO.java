@@ -0,0 +1,14 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StockMovementBatchResponseDTO {
+    private int applied;
+    private int rejected;
+    private List<StockMovementBatchLineResultDTO> lines;
+}
@@ -1,9 +1,11 @@
 package br.inventory.control.api.dto;
 
+import br.inventory.control.api.model.MovementType;
 import lombok.Data;
 
 @Data
 public class StockMovementDTO {
     private Long productId;
     private int quantity;
+    private MovementType type;
 }
@@ -0,0 +1,13 @@
+package br.inventory.control.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StockMovementPageDTO {
+    private List<StockMovementResponseDTO> items;
+    private String nextCursor;
+}
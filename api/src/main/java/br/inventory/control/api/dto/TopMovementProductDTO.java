@@ -5,6 +5,8 @@ import lombok.Data;
 
 @Data @AllArgsConstructor
 public class TopMovementProductDTO {
+    private Long productId;
     private String productName;
     private long movementCount;
+    private long totalQuantity;
 }
@@ -0,0 +1,53 @@
+package br.inventory.control.api.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch of outbox events as a JSON array to {@code inventory.outbox.http.url}. Any
+ * response other than 2xx fails the batch, which is then retried.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.sink", havingValue = "http")
+@RequiredArgsConstructor
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Value("${inventory.outbox.http.url}")
+    private URI url;
+
+    @Value("${inventory.outbox.http.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(messages)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while delivering outbox events", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Outbox endpoint answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package br.inventory.control.api.event;
+
+public enum OutboxEventType {
+    STOCK_MOVEMENT_RECORDED,
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED,
+    PRODUCT_PRICE_CHANGED
+}
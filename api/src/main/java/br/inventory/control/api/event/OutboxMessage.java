@@ -0,0 +1,13 @@
+package br.inventory.control.api.event;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * An outbox row as handed to an {@link OutboxSink}. {@code id} increases with insertion order and
+ * identifies the event to consumers, which should ignore ids they already processed.
+ */
+public record OutboxMessage(long id, OutboxEventType eventType, long aggregateId, @JsonRawValue String payload,
+                            Instant createdAt) {
+}
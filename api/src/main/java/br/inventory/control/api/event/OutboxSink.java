@@ -0,0 +1,13 @@
+package br.inventory.control.api.event;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. A batch counts as delivered when {@link #deliver} returns; if it
+ * throws, the batch stays in the outbox and is delivered again, so sinks see events at least once.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,4 @@
+package br.inventory.control.api.event;
+
+public record ProductDeletedPayload(Long productId, Long categoryId) {
+}
@@ -0,0 +1,36 @@
+package br.inventory.control.api.event;
+
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+
+import java.time.Instant;
+
+/**
+ * Published inside the transaction that changed a product's stock or minimum level. Listeners that
+ * push data outside the process should react after commit.
+ */
+public record StockLevelChangedEvent(Long productId, String productName, Long categoryId, int previousQuantity,
+                                     boolean previouslyBelowMin, int quantityInStock, int minStockQuantity,
+                                     int maxStockQuantity, Instant occurredAt) {
+
+    public static StockLevelChangedEvent of(ProductStockLevelDTO stock, int previousQuantity, boolean previouslyBelowMin) {
+        return new StockLevelChangedEvent(stock.getProductId(), stock.getProductName(), stock.getCategoryId(), previousQuantity,
+                previouslyBelowMin, stock.getQuantityInStock(), stock.getMinStockQuantity(), stock.getMaxStockQuantity(), Instant.now());
+    }
+
+    public static StockLevelChangedEvent afterMovement(ProductStockLevelDTO stock, int delta) {
+        int previousQuantity = stock.getQuantityInStock() - delta;
+        return of(stock, previousQuantity, previousQuantity < stock.getMinStockQuantity());
+    }
+
+    public boolean belowMin() {
+        return quantityInStock < minStockQuantity;
+    }
+
+    public boolean crossedBelowMin() {
+        return !previouslyBelowMin && belowMin();
+    }
+
+    public boolean recovered() {
+        return previouslyBelowMin && !belowMin();
+    }
+}
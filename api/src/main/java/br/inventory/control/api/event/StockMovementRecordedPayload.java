@@ -0,0 +1,13 @@
+package br.inventory.control.api.event;
+
+import br.inventory.control.api.model.MovementType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload of a saved stock movement. {@code quantityInStock} is null for hot SKU movements
+ * flushed from the journal.
+ */
+public record StockMovementRecordedPayload(Long movementId, Long productId, Long categoryId, MovementType type, int quantity,
+                                           LocalDateTime movementDate, Integer quantityInStock) {
+}
@@ -0,0 +1,19 @@
+package br.inventory.control.api.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "hot_stock_checkpoints")
+@Data
+public class HotStockCheckpoint {
+    @Id
+    private Long id;
+
+    private long lastSequence;
+    private Instant updatedAt;
+}
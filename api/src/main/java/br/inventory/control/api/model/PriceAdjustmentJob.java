@@ -0,0 +1,40 @@
+package br.inventory.control.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A price adjustment applied in id-ordered chunks. {@code lastProductId} and {@code updatedCount}
+ * are committed together with each chunk.
+ */
+@Entity
+@Table(name = "price_adjustment_jobs")
+@Data
+public class PriceAdjustmentJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private BigDecimal percentage;
+
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PriceAdjustmentJobStatus status;
+
+    private long lastProductId;
+    private long updatedCount;
+    private long totalCount;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,8 @@
+package br.inventory.control.api.model;
+
+public enum PriceAdjustmentJobStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
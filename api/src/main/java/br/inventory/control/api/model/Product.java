@@ -2,11 +2,13 @@ package br.inventory.control.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products")
 @Data
+@DynamicUpdate
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,7 +23,15 @@ public class Product {
     private int minStockQuantity;
     private int maxStockQuantity;
 
+    // Maintained on every stock or minimum change so the below-min report reads only flagged rows.
+    @Column(nullable = false, columnDefinition = "boolean not null default false")
+    private boolean belowMinStock;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
-}
\ No newline at end of file
+
+    public void refreshBelowMinStock() {
+        this.belowMinStock = quantityInStock < minStockQuantity;
+    }
+}
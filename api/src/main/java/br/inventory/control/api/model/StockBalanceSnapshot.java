@@ -0,0 +1,20 @@
+package br.inventory.control.api.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Quantity on hand of a product at a snapshot time, derived from the current quantity minus the
+ * movements recorded at or after that time.
+ */
+@Entity
+@Table(name = "stock_balance_snapshots")
+@Data
+public class StockBalanceSnapshot {
+    @EmbeddedId
+    private StockBalanceSnapshotId id;
+
+    private int quantity;
+}
@@ -16,6 +16,7 @@ public class StockMovement {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    @Column(nullable = false)
     private LocalDateTime movementDate;
     private int quantity;
 
@@ -0,0 +1,21 @@
+package br.inventory.control.api.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Movement count and quantity per product, type and hour or day bucket. Rows are upserted in the
+ * same transaction as the movements they summarize.
+ */
+@Entity
+@Table(name = "stock_movement_rollups")
+@Data
+public class StockMovementRollup {
+    @EmbeddedId
+    private StockMovementRollupId id;
+
+    private long movementCount;
+    private long totalQuantity;
+}
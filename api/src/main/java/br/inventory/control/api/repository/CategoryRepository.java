@@ -3,8 +3,11 @@ package br.inventory.control.api.repository;
 import br.inventory.control.api.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findAllByOrderByNameAsc();
+
+    List<Category> findByIdInOrderByNameAsc(Collection<Long> ids);
 }
\ No newline at end of file
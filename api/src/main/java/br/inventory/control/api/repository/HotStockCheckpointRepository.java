@@ -0,0 +1,7 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.HotStockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HotStockCheckpointRepository extends JpaRepository<HotStockCheckpoint, Long> {
+}
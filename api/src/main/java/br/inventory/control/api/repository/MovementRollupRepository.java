@@ -0,0 +1,22 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.TopMovementProductDTO;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.model.StockMovement;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface MovementRollupRepository {
+    void increment(Collection<StockMovement> movements);
+
+    boolean backfillIfEmpty();
+
+    /**
+     * Top products for movements in [{@code from}, {@code to}), both hour aligned, or over the whole
+     * history when both are null. {@code categoryIds} null means every category.
+     */
+    List<TopMovementProductDTO> findTopProducts(MovementType type, LocalDateTime from, LocalDateTime to,
+                                                Collection<Long> categoryIds, boolean byQuantity, int limit);
+}
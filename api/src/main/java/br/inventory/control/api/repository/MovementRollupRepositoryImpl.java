@@ -0,0 +1,138 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.TopMovementProductDTO;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.model.RollupGranularity;
+import br.inventory.control.api.model.StockMovement;
+import br.inventory.control.api.model.StockMovementRollupId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class MovementRollupRepositoryImpl implements MovementRollupRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stock_movement_rollups (granularity, bucket_start, product_id, type, movement_count, total_quantity)"
+                    + " VALUES (:granularity, :bucketStart, :productId, :type, :movementCount, :totalQuantity)"
+                    + " ON CONFLICT (granularity, bucket_start, product_id, type) DO UPDATE SET"
+                    + " movement_count = stock_movement_rollups.movement_count + EXCLUDED.movement_count,"
+                    + " total_quantity = stock_movement_rollups.total_quantity + EXCLUDED.total_quantity";
+
+    // The truncation unit is inlined so the SELECT and GROUP BY expressions are identical to PostgreSQL.
+    private static final String BACKFILL_SQL =
+            "INSERT INTO stock_movement_rollups (granularity, bucket_start, product_id, type, movement_count, total_quantity)"
+                    + " SELECT '%1$s', date_trunc('%2$s', movement_date), product_id, type, COUNT(*), SUM(quantity)"
+                    + " FROM stock_movements GROUP BY date_trunc('%2$s', movement_date), product_id, type";
+
+    // Keys are sorted so concurrent writers lock rollup rows in the same order.
+    private static final Comparator<StockMovementRollupId> KEY_ORDER = Comparator
+            .comparing(StockMovementRollupId::getBucketStart)
+            .thenComparing(StockMovementRollupId::getProductId)
+            .thenComparing(StockMovementRollupId::getType)
+            .thenComparing(StockMovementRollupId::getGranularity);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void increment(Collection<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Map<StockMovementRollupId, long[]> totals = new TreeMap<>(KEY_ORDER);
+        for (StockMovement movement : movements) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                StockMovementRollupId key = new StockMovementRollupId(granularity,
+                        granularity.bucketOf(movement.getMovementDate()), movement.getProduct().getId(), movement.getType());
+                long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+                total[0]++;
+                total[1] += movement.getQuantity();
+            }
+        }
+
+        MapSqlParameterSource[] batch = totals.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("granularity", entry.getKey().getGranularity().name())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().getBucketStart()))
+                        .addValue("productId", entry.getKey().getProductId())
+                        .addValue("type", entry.getKey().getType().name())
+                        .addValue("movementCount", entry.getValue()[0])
+                        .addValue("totalQuantity", entry.getValue()[1]))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    // The table lock makes live increments wait, so no movement is counted by both the backfill and a writer.
+    @Override
+    public boolean backfillIfEmpty() {
+        jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE stock_movement_rollups IN EXCLUSIVE MODE");
+        Boolean populated = jdbcTemplate.getJdbcTemplate()
+                .queryForObject("SELECT EXISTS (SELECT 1 FROM stock_movement_rollups)", Boolean.class);
+        if (Boolean.TRUE.equals(populated)) {
+            return false;
+        }
+        jdbcTemplate.getJdbcTemplate().update(BACKFILL_SQL.formatted(RollupGranularity.HOUR.name(), "hour"));
+        jdbcTemplate.getJdbcTemplate().update(BACKFILL_SQL.formatted(RollupGranularity.DAY.name(), "day"));
+        return true;
+    }
+
+    @Override
+    public List<TopMovementProductDTO> findTopProducts(MovementType type, LocalDateTime from, LocalDateTime to,
+                                                       Collection<Long> categoryIds, boolean byQuantity, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("type", type.name())
+                .addValue("limit", limit);
+        List<String> conditions = new ArrayList<>();
+        conditions.add("r.type = :type");
+
+        if (from == null && to == null) {
+            conditions.add("r.granularity = 'DAY'");
+        } else {
+            // Whole days inside the window come from daily rows, the partial days at either end from hourly rows.
+            LocalDateTime dayStart = from.truncatedTo(ChronoUnit.DAYS).equals(from) ? from : from.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            LocalDateTime dayEnd = to.truncatedTo(ChronoUnit.DAYS);
+            params.addValue("from", Timestamp.valueOf(from)).addValue("to", Timestamp.valueOf(to));
+            if (dayStart.isBefore(dayEnd)) {
+                params.addValue("dayStart", Timestamp.valueOf(dayStart)).addValue("dayEnd", Timestamp.valueOf(dayEnd));
+                conditions.add("((r.granularity = 'DAY' AND r.bucket_start >= :dayStart AND r.bucket_start < :dayEnd)"
+                        + " OR (r.granularity = 'HOUR' AND r.bucket_start >= :from AND r.bucket_start < :dayStart)"
+                        + " OR (r.granularity = 'HOUR' AND r.bucket_start >= :dayEnd AND r.bucket_start < :to))");
+            } else {
+                conditions.add("r.granularity = 'HOUR' AND r.bucket_start >= :from AND r.bucket_start < :to");
+            }
+        }
+        if (categoryIds != null) {
+            if (categoryIds.isEmpty()) {
+                return List.of();
+            }
+            params.addValue("categoryIds", categoryIds);
+            conditions.add("r.product_id IN (SELECT id FROM products WHERE category_id IN (:categoryIds))");
+        }
+
+        // Rank inside the rollups first; products is only joined for the rows returned.
+        String orderBy = byQuantity ? "total_quantity DESC, movement_count DESC" : "movement_count DESC, total_quantity DESC";
+        String sql = "SELECT t.product_id, p.name, t.movement_count, t.total_quantity FROM ("
+                + " SELECT r.product_id, SUM(r.movement_count) AS movement_count, SUM(r.total_quantity) AS total_quantity"
+                + " FROM stock_movement_rollups r"
+                + " WHERE " + String.join(" AND ", conditions)
+                + " GROUP BY r.product_id"
+                + " ORDER BY " + orderBy + ", r.product_id LIMIT :limit"
+                + ") t JOIN products p ON p.id = t.product_id"
+                + " ORDER BY " + orderBy + ", t.product_id";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new TopMovementProductDTO(
+                rs.getLong("product_id"),
+                rs.getString("name"),
+                rs.getLong("movement_count"),
+                rs.getLong("total_quantity")));
+    }
+}
@@ -0,0 +1,20 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.PriceAdjustmentJob;
+import br.inventory.control.api.model.PriceAdjustmentJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PriceAdjustmentJobRepository extends JpaRepository<PriceAdjustmentJob, Long> {
+    List<PriceAdjustmentJob> findByStatusOrderByIdAsc(PriceAdjustmentJobStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM PriceAdjustmentJob j WHERE j.id = :id")
+    Optional<PriceAdjustmentJob> findByIdForUpdate(@Param("id") Long id);
+}
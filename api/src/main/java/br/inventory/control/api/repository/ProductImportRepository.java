@@ -0,0 +1,11 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.Product;
+
+import java.util.List;
+
+public interface ProductImportRepository {
+    List<Long> allocateIds(int count);
+
+    void insertAll(List<Product> products);
+}
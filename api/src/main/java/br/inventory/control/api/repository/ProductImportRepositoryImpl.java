@@ -0,0 +1,48 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductImportRepositoryImpl implements ProductImportRepository {
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, name, unit_price, unit_of_measure, quantity_in_stock, min_stock_quantity,"
+                    + " max_stock_quantity, below_min_stock, category_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Ids come from the identity column's own sequence in one round trip, so the rows can be batched.
+    @Override
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, products.size(), (ps, product) -> {
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getName());
+            ps.setBigDecimal(3, product.getUnitPrice());
+            if (product.getUnitOfMeasure() == null) {
+                ps.setNull(4, Types.VARCHAR);
+            } else {
+                ps.setString(4, product.getUnitOfMeasure());
+            }
+            ps.setInt(5, product.getQuantityInStock());
+            ps.setInt(6, product.getMinStockQuantity());
+            ps.setInt(7, product.getMaxStockQuantity());
+            ps.setBoolean(8, product.isBelowMinStock());
+            ps.setLong(9, product.getCategory().getId());
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package br.inventory.control.api.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductPriceRepository {
+    /**
+     * Adjusts the price of the next {@code limit} products with an id above {@code afterId}, optionally
+     * within one category, and returns their ids in ascending order.
+     */
+    List<Long> adjustPricesAfter(long afterId, Long categoryId, BigDecimal percentage, int limit);
+}
@@ -0,0 +1,29 @@
+package br.inventory.control.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductPriceRepositoryImpl implements ProductPriceRepository {
+
+    // The chunk is the id range up to the limit-th matching product, so the update walks the primary key
+    // and only locks the chunk's rows, for the chunk's transaction.
+    private static final String ADJUST_SQL =
+            "UPDATE products SET unit_price = unit_price * (1 + ? / 100.0)"
+                    + " WHERE id > ? AND id <= (SELECT MAX(id) FROM (SELECT id FROM products WHERE id > ?%1$s ORDER BY id LIMIT ?) chunk)%1$s"
+                    + " RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> adjustPricesAfter(long afterId, Long categoryId, BigDecimal percentage, int limit) {
+        List<Long> ids = categoryId == null
+                ? jdbcTemplate.queryForList(ADJUST_SQL.formatted(""), Long.class, percentage, afterId, afterId, limit)
+                : jdbcTemplate.queryForList(ADJUST_SQL.formatted(" AND category_id = ?"), Long.class,
+                        percentage, afterId, afterId, categoryId, limit, categoryId);
+        return ids.stream().sorted().toList();
+    }
+}
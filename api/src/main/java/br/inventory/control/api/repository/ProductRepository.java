@@ -1,30 +1,57 @@
 package br.inventory.control.api.repository;
 
+import br.inventory.control.api.dto.PriceListItemDTO;
 import br.inventory.control.api.model.Category;
 import br.inventory.control.api.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategoryIn(Collection<Category> categories);
-    List<Product> findAllByOrderByNameAsc();
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductStockRepository, ProductPriceRepository,
+        ProductImportRepository {
+    @Query("SELECT p FROM Product p WHERE p.category.id IN :categoryIds")
+    List<Product> findByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
     long countByCategory(Category category);
 
-    @Modifying
-    @Query("UPDATE Product p SET p.unitPrice = p.unitPrice * (1 + :percentage / 100.0)")
-    void adjustPriceByPercentage(@Param("percentage") BigDecimal percentage);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT new br.inventory.control.api.dto.ProductCountByCategoryDTO(p.category.name, COUNT(p)) FROM Product p GROUP BY p.category.name")
     List<br.inventory.control.api.dto.ProductCountByCategoryDTO> countProductsByCategory();
 
-    @Query("SELECT new br.inventory.control.api.dto.ProductCountByCategoryDTO(p.category.name, COUNT(p)) FROM Product p WHERE p.category IN :categories GROUP BY p.category.name")
-    List<br.inventory.control.api.dto.ProductCountByCategoryDTO> countProductsByCategoryFiltered(@Param("categories") Collection<Category> categories);
+    @Query("SELECT new br.inventory.control.api.dto.ProductCountByCategoryDTO(p.category.name, COUNT(p)) FROM Product p WHERE p.category.id IN :categoryIds GROUP BY p.category.name")
+    List<br.inventory.control.api.dto.ProductCountByCategoryDTO> countProductsByCategoryFiltered(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.category.id IN :categoryIds GROUP BY p.category.id")
+    List<Object[]> countByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds);
+
+    List<Product> findByBelowMinStockTrueOrderByNameAsc();
+    List<Product> findByBelowMinStockTrueAndCategoryIdInOrderByNameAsc(Collection<Long> categoryIds);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new br.inventory.control.api.dto.PriceListItemDTO(p.name, p.unitPrice, c.name) FROM Product p JOIN p.category c ORDER BY p.name, p.id")
+    Stream<PriceListItemDTO> streamPriceList();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new br.inventory.control.api.dto.PriceListItemDTO(p.name, p.unitPrice, p.category.name) FROM Product p WHERE p.category.id IN :categoryIds ORDER BY p.name, p.id")
+    Stream<PriceListItemDTO> streamPriceListByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.name, p.quantityInStock, p.unitPrice FROM Product p ORDER BY p.name, p.id")
+    Stream<Object[]> streamStockBalance();
 
-    List<Product> findByQuantityInStockLessThan(int minStockQuantity);
-    List<Product> findByQuantityInStockLessThanAndCategoryIn(int minStockQuantity, Collection<Category> categories);
-}
\ No newline at end of file
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.name, p.quantityInStock, p.unitPrice FROM Product p WHERE p.category.id IN :categoryIds ORDER BY p.name, p.id")
+    Stream<Object[]> streamStockBalanceByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds);
+}
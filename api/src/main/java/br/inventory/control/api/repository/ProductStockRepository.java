@@ -0,0 +1,16 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface ProductStockRepository {
+    Optional<ProductStockLevelDTO> addStock(Long productId, int quantity);
+
+    Optional<ProductStockLevelDTO> removeStockIfAvailable(Long productId, int quantity);
+
+    void applyStockDeltas(Map<Long, Integer> deltasByProductId);
+
+    int refreshBelowMinStockFlags();
+}
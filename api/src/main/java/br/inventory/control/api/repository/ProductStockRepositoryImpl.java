@@ -0,0 +1,71 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String RETURNING =
+            " RETURNING id, name, category_id, quantity_in_stock, min_stock_quantity, max_stock_quantity";
+
+    private static final String ADD_SQL =
+            "UPDATE products SET quantity_in_stock = quantity_in_stock + ?, below_min_stock = quantity_in_stock + ? < min_stock_quantity"
+                    + " WHERE id = ?" + RETURNING;
+
+    private static final String REMOVE_SQL =
+            "UPDATE products SET quantity_in_stock = quantity_in_stock - ?, below_min_stock = quantity_in_stock - ? < min_stock_quantity"
+                    + " WHERE id = ? AND quantity_in_stock >= ?" + RETURNING;
+
+    private static final String DELTA_SQL =
+            "UPDATE products SET quantity_in_stock = quantity_in_stock + ?, below_min_stock = quantity_in_stock + ? < min_stock_quantity"
+                    + " WHERE id = ?";
+
+    private static final String REFRESH_FLAGS_SQL =
+            "UPDATE products SET below_min_stock = quantity_in_stock < min_stock_quantity"
+                    + " WHERE below_min_stock IS DISTINCT FROM (quantity_in_stock < min_stock_quantity)";
+
+    private static final RowMapper<ProductStockLevelDTO> STOCK_LEVEL_MAPPER = (rs, rowNum) -> new ProductStockLevelDTO(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getLong("category_id"),
+            rs.getInt("quantity_in_stock"),
+            rs.getInt("min_stock_quantity"),
+            rs.getInt("max_stock_quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<ProductStockLevelDTO> addStock(Long productId, int quantity) {
+        return jdbcTemplate.query(ADD_SQL, STOCK_LEVEL_MAPPER, quantity, quantity, productId).stream().findFirst();
+    }
+
+    // Check and decrement happen in one statement, so concurrent exits never read a stale quantity.
+    @Override
+    public Optional<ProductStockLevelDTO> removeStockIfAvailable(Long productId, int quantity) {
+        return jdbcTemplate.query(REMOVE_SQL, STOCK_LEVEL_MAPPER, quantity, quantity, productId, quantity).stream().findFirst();
+    }
+
+    @Override
+    public void applyStockDeltas(Map<Long, Integer> deltasByProductId) {
+        if (deltasByProductId.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELTA_SQL, new ArrayList<>(deltasByProductId.entrySet()), deltasByProductId.size(), (ps, delta) -> {
+            ps.setInt(1, delta.getValue());
+            ps.setInt(2, delta.getValue());
+            ps.setLong(3, delta.getKey());
+        });
+    }
+
+    @Override
+    public int refreshBelowMinStockFlags() {
+        return jdbcTemplate.update(REFRESH_FLAGS_SQL);
+    }
+}
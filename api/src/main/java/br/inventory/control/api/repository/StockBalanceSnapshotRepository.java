@@ -0,0 +1,20 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.StockBalanceSnapshot;
+import br.inventory.control.api.model.StockBalanceSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface StockBalanceSnapshotRepository extends JpaRepository<StockBalanceSnapshot, StockBalanceSnapshotId>, StockSnapshotRepository {
+    @Query("SELECT MAX(s.id.snapshotAt) FROM StockBalanceSnapshot s WHERE s.id.snapshotAt <= :asOf")
+    Optional<LocalDateTime> findLatestSnapshotAt(@Param("asOf") LocalDateTime asOf);
+
+    @Modifying
+    @Query("DELETE FROM StockBalanceSnapshot s WHERE s.id.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
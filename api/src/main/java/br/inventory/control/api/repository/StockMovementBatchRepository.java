@@ -0,0 +1,9 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.StockMovement;
+
+import java.util.List;
+
+public interface StockMovementBatchRepository {
+    void insertAll(List<StockMovement> movements);
+}
@@ -0,0 +1,39 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.StockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockMovementBatchRepositoryImpl implements StockMovementBatchRepository {
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('stock_movements', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_movements (id, product_id, movement_date, quantity, type) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts go through JDBC batching; IDENTITY keys keep Hibernate from batching these itself. Ids are
+    // taken from the sequence in one round trip first and set on the movements, so callers can reference them.
+    @Override
+    public void insertAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            movements.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.getId());
+            ps.setLong(2, movement.getProduct().getId());
+            ps.setTimestamp(3, Timestamp.valueOf(movement.getMovementDate()));
+            ps.setInt(4, movement.getQuantity());
+            ps.setString(5, movement.getType().name());
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.StockMovementResponseDTO;
+import br.inventory.control.api.model.MovementType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockMovementHistoryRepository {
+    /**
+     * Returns up to {@code limit} movements of a product, newest first, strictly before the
+     * ({@code beforeDate}, {@code beforeId}) keyset position when one is given. Filters are optional.
+     */
+    List<StockMovementResponseDTO> findHistory(Long productId, LocalDateTime from, LocalDateTime to, MovementType type,
+                                               LocalDateTime beforeDate, Long beforeId, int limit);
+}
@@ -0,0 +1,57 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.StockMovementResponseDTO;
+import br.inventory.control.api.model.MovementType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockMovementHistoryRepositoryImpl implements StockMovementHistoryRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Reads only the movement columns, so no Product is loaded; walks (product_id, movement_date, id) backwards.
+    @Override
+    public List<StockMovementResponseDTO> findHistory(Long productId, LocalDateTime from, LocalDateTime to, MovementType type,
+                                                      LocalDateTime beforeDate, Long beforeId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("limit", limit);
+        List<String> conditions = new ArrayList<>();
+        conditions.add("product_id = :productId");
+
+        if (from != null) {
+            params.addValue("from", Timestamp.valueOf(from));
+            conditions.add("movement_date >= :from");
+        }
+        if (to != null) {
+            params.addValue("to", Timestamp.valueOf(to));
+            conditions.add("movement_date < :to");
+        }
+        if (type != null) {
+            params.addValue("type", type.name());
+            conditions.add("type = :type");
+        }
+        if (beforeDate != null) {
+            params.addValue("beforeDate", Timestamp.valueOf(beforeDate)).addValue("beforeId", beforeId);
+            conditions.add("(movement_date, id) < (:beforeDate, :beforeId)");
+        }
+
+        String sql = "SELECT id, movement_date, quantity, type FROM stock_movements"
+                + " WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY movement_date DESC, id DESC LIMIT :limit";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> StockMovementResponseDTO.builder()
+                .id(rs.getLong("id"))
+                .productId(productId)
+                .movementDate(rs.getTimestamp("movement_date").toLocalDateTime())
+                .quantity(rs.getInt("quantity"))
+                .type(MovementType.valueOf(rs.getString("type")))
+                .build());
+    }
+}
@@ -0,0 +1,14 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.model.StockMovementRollup;
+import br.inventory.control.api.model.StockMovementRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StockMovementRollupRepository extends JpaRepository<StockMovementRollup, StockMovementRollupId>, MovementRollupRepository {
+    @Modifying
+    @Query("DELETE FROM StockMovementRollup r WHERE r.id.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,22 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockSnapshotRepository {
+    /**
+     * Records the balance of every product at {@code snapshotAt}; products that already have a row
+     * for that time are left as they are. Returns the number of rows written.
+     */
+    int takeSnapshot(LocalDateTime snapshotAt);
+
+    /**
+     * Balances at {@code asOf}, starting from the snapshot taken at {@code snapshotAt} (null when there
+     * is none). Restricted to one product, or to categories when {@code categoryIds} is not null.
+     */
+    List<StockBalanceItemDTO> findBalancesAsOf(LocalDateTime asOf, LocalDateTime snapshotAt, Long productId,
+                                               Collection<Long> categoryIds);
+}
@@ -0,0 +1,79 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockSnapshotRepositoryImpl implements StockSnapshotRepository {
+
+    private static final String SIGNED_QUANTITY = "SUM(CASE WHEN type = 'ENTRY' THEN quantity ELSE -quantity END)";
+
+    // One statement, so the current quantities and the movements subtracted from them are read from the same snapshot.
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO stock_balance_snapshots (snapshot_at, product_id, quantity)"
+                    + " SELECT :snapshotAt, p.id, p.quantity_in_stock - COALESCE(m.delta, 0) FROM products p"
+                    + " LEFT JOIN (SELECT product_id, " + SIGNED_QUANTITY + " AS delta FROM stock_movements"
+                    + " WHERE movement_date >= :snapshotAt GROUP BY product_id) m ON m.product_id = p.id"
+                    + " ON CONFLICT DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int takeSnapshot(LocalDateTime snapshotAt) {
+        return jdbcTemplate.update(SNAPSHOT_SQL, new MapSqlParameterSource("snapshotAt", Timestamp.valueOf(snapshotAt)));
+    }
+
+    @Override
+    public List<StockBalanceItemDTO> findBalancesAsOf(LocalDateTime asOf, LocalDateTime snapshotAt, Long productId,
+                                                      Collection<Long> categoryIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("asOf", Timestamp.valueOf(asOf));
+        List<String> conditions = new ArrayList<>();
+        if (productId != null) {
+            params.addValue("productId", productId);
+            conditions.add("p.id = :productId");
+        }
+        if (categoryIds != null) {
+            if (categoryIds.isEmpty()) {
+                return List.of();
+            }
+            params.addValue("categoryIds", categoryIds);
+            conditions.add("p.category_id IN (:categoryIds)");
+        }
+
+        // Movements are summed per product over (product_id, movement_date), so the cost follows the products
+        // asked for and the movements between the snapshot and asOf. Products missing from the snapshot
+        // (created after it, or no snapshot yet) are walked back from the current quantity instead.
+        String backward = "p.quantity_in_stock - " + movementsOf("m.movement_date >= :asOf");
+        String quantity = backward;
+        String join = "";
+        if (snapshotAt != null) {
+            params.addValue("snapshotAt", Timestamp.valueOf(snapshotAt));
+            join = " LEFT JOIN stock_balance_snapshots s ON s.snapshot_at = :snapshotAt AND s.product_id = p.id";
+            quantity = "CASE WHEN s.product_id IS NOT NULL THEN s.quantity + "
+                    + movementsOf("m.movement_date >= :snapshotAt AND m.movement_date < :asOf") + " ELSE " + backward + " END";
+        }
+
+        String sql = "SELECT p.name, p.unit_price, " + quantity + " AS quantity FROM products p" + join
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY p.name, p.id";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            int balance = rs.getInt("quantity");
+            BigDecimal unitPrice = rs.getBigDecimal("unit_price");
+            return new StockBalanceItemDTO(rs.getString("name"), balance,
+                    unitPrice == null ? BigDecimal.ZERO : unitPrice.multiply(BigDecimal.valueOf(balance)));
+        });
+    }
+
+    private static String movementsOf(String range) {
+        return "COALESCE((SELECT " + SIGNED_QUANTITY + " FROM stock_movements m WHERE m.product_id = p.id AND " + range + "), 0)";
+    }
+}
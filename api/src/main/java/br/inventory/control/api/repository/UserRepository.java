@@ -2,8 +2,11 @@ package br.inventory.control.api.repository;
 
 import br.inventory.control.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    List<User> findByAllowedCategoriesId(Long categoryId);
 }
\ No newline at end of file
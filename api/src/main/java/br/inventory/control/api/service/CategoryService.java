@@ -1,17 +1,18 @@
 package br.inventory.control.api.service;
 
+import br.inventory.control.api.config.security.UserPrincipal;
 import br.inventory.control.api.dto.CategoryDTO;
 import br.inventory.control.api.exception.ResourceNotFoundException;
 import br.inventory.control.api.model.Category;
-import br.inventory.control.api.model.Role;
-import br.inventory.control.api.model.User;
 import br.inventory.control.api.repository.CategoryRepository;
 import br.inventory.control.api.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +22,7 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final UserService userService;
+    private final ReportCacheService reportCacheService;
 
     @Transactional
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
@@ -31,20 +33,16 @@ public class CategoryService {
 
     @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAllByOrderByNameAsc().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(categoryRepository.findAllByOrderByNameAsc());
     }
 
     @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategoriesForCurrentUser() {
-        User currentUser = userService.getAuthenticatedUser();
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getAllowedCategories().isEmpty()) {
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        if (currentUser.canAccessAllCategories()) {
             return getAllCategories();
         } else {
-            return currentUser.getAllowedCategories().stream()
-                    .map(this::toDTO)
-                    .collect(Collectors.toList());
+            return toDTOs(categoryRepository.findByIdInOrderByNameAsc(currentUser.getAllowedCategoryIds()));
         }
     }
 
@@ -65,6 +63,7 @@ public class CategoryService {
         existingCategory.setPackaging(categoryDTO.getPackaging());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.CATEGORY), List.of(id));
         return toDTO(updatedCategory);
     }
 
@@ -73,16 +72,34 @@ public class CategoryService {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Category not found with id: " + id);
         }
+        userService.invalidatePermissionsForCategory(id);
         categoryRepository.deleteById(id);
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.CATEGORY), List.of(id));
+    }
+
+    private List<CategoryDTO> toDTOs(List<Category> categories) {
+        if (categories.isEmpty()) {
+            return List.of();
+        }
+        List<Long> categoryIds = categories.stream().map(Category::getId).toList();
+        Map<Long, Long> productCounts = productRepository.countByCategoryIds(categoryIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+        return categories.stream()
+                .map(category -> toDTO(category, productCounts.getOrDefault(category.getId(), 0L)))
+                .collect(Collectors.toList());
     }
 
     private CategoryDTO toDTO(Category category) {
+        return toDTO(category, productRepository.countByCategory(category));
+    }
+
+    private CategoryDTO toDTO(Category category, long productCount) {
         CategoryDTO dto = new CategoryDTO();
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setSize(category.getSize());
         dto.setPackaging(category.getPackaging());
-        dto.setProductCount(productRepository.countByCategory(category));
+        dto.setProductCount(productCount);
         return dto;
     }
 
@@ -0,0 +1,45 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes keyset positions as opaque, URL-safe cursors. Clients must pass them back unchanged.
+ */
+public final class CursorCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... keys) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(Arrays.stream(keys).map(String::valueOf).toList());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static List<String> decode(String cursor, int expectedKeys) {
+        List<String> keys;
+        try {
+            keys = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<>() {
+            });
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+        if (keys == null || keys.size() != expectedKeys) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,153 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.model.MovementType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of hot SKU movements that have been accepted in memory but not yet written
+ * to the database. Every append is forced to disk before the caller is answered, and the journal
+ * keeps the unflushed entries in sequence order so a flush always covers a contiguous prefix.
+ */
+class HotStockJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockJournal.class);
+
+    record Entry(long sequence, long productId, MovementType type, int quantity, LocalDateTime movementDate) {
+
+        String format() {
+            return sequence + ";" + productId + ";" + type.name() + ";" + quantity + ";" + movementDate + "\n";
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split(";");
+            return new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), MovementType.valueOf(fields[2]),
+                    Integer.parseInt(fields[3]), LocalDateTime.parse(fields[4]));
+        }
+    }
+
+    private final Path path;
+    private final List<Entry> pending = new ArrayList<>();
+    private FileChannel channel;
+    private long lastSequence;
+
+    HotStockJournal(Path path, long lastFlushedSequence) throws IOException {
+        this.path = path;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.lastSequence = lastFlushedSequence;
+        boolean damaged = false;
+        if (Files.exists(path)) {
+            byte[] content = Files.readAllBytes(path);
+            // A crash mid-append leaves a last line without its newline; appending after it would merge the two.
+            damaged = content.length > 0 && content[content.length - 1] != '\n';
+            for (String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                Entry entry;
+                try {
+                    entry = Entry.parse(line);
+                } catch (RuntimeException e) {
+                    logger.warn("Ignoring incomplete hot stock journal line: {}", line);
+                    damaged = true;
+                    continue;
+                }
+                if (entry.sequence() > lastFlushedSequence) {
+                    pending.add(entry);
+                }
+                lastSequence = Math.max(lastSequence, entry.sequence());
+            }
+        }
+        if (damaged) {
+            rewrite();
+        }
+        this.channel = open(path);
+    }
+
+    Entry append(long productId, MovementType type, int quantity, LocalDateTime movementDate) throws IOException {
+        Entry entry;
+        FileChannel target;
+        synchronized (this) {
+            entry = new Entry(lastSequence + 1, productId, type, quantity, movementDate);
+            target = channel;
+            write(target, entry);
+            lastSequence = entry.sequence();
+            pending.add(entry);
+        }
+        try {
+            // Forced outside the lock so concurrent appends share one disk sync.
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // A compaction replaced the file in between; it forces every pending entry itself.
+        }
+        return entry;
+    }
+
+    synchronized List<Entry> drain() {
+        List<Entry> drained = new ArrayList<>(pending);
+        pending.clear();
+        return drained;
+    }
+
+    synchronized void requeue(List<Entry> entries) {
+        pending.addAll(0, entries);
+    }
+
+    synchronized void discard(long productId) {
+        pending.removeIf(entry -> entry.productId() == productId);
+    }
+
+    /**
+     * Rewrites the journal with only the entries that are still pending, once everything up to
+     * the checkpoint is safely in the database.
+     */
+    synchronized void compact() throws IOException {
+        channel.close();
+        rewrite();
+        channel = open(path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // Replaces the file with the pending entries only, through an atomic rename.
+    private void rewrite() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : pending) {
+                write(out, entry);
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void write(FileChannel target, Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(entry.format().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+}
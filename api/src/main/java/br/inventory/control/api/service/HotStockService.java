@@ -0,0 +1,232 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+import br.inventory.control.api.event.OutboxEventType;
+import br.inventory.control.api.event.StockMovementRecordedPayload;
+import br.inventory.control.api.model.HotStockCheckpoint;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.model.Product;
+import br.inventory.control.api.model.StockMovement;
+import br.inventory.control.api.repository.HotStockCheckpointRepository;
+import br.inventory.control.api.repository.ProductRepository;
+import br.inventory.control.api.repository.StockMovementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory authority for the stock of products listed in {@code inventory.hot-skus.product-ids}.
+ * Movements on those products are checked against a striped counter, journaled to local disk and
+ * written to {@code products}/{@code stock_movements} in periodic batches instead of serializing on
+ * the product row. The database holds a checkpoint of the last flushed journal sequence, so on
+ * startup any journaled movement that did not reach the database is replayed before the counters
+ * are loaded.
+ */
+// Journal replay inserts movements, so the current month's partition must exist first.
+@Service
+@DependsOn("stockMovementPartitionService")
+@RequiredArgsConstructor
+public class HotStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockService.class);
+    private static final long CHECKPOINT_ID = 1L;
+
+    private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final HotStockCheckpointRepository checkpointRepository;
+    private final MovementRollupService movementRollupService;
+    private final ReportCacheService reportCacheService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.hot-skus.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.hot-skus.product-ids:}")
+    private Set<Long> hotProductIds;
+
+    @Value("${inventory.hot-skus.journal-path:data/hot-stock.journal}")
+    private Path journalPath;
+
+    @Value("${inventory.hot-skus.stripes:16}")
+    private int stripes;
+
+    private final Map<Long, HotProduct> products = new ConcurrentHashMap<>();
+    private HotStockJournal journal;
+
+    private record HotProduct(StripedStockCounter counter, String name, Long categoryId, int minStockQuantity, int maxStockQuantity) {
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long lastSequence = checkpointRepository.findById(CHECKPOINT_ID).map(HotStockCheckpoint::getLastSequence).orElse(0L);
+        journal = new HotStockJournal(journalPath, lastSequence);
+        flush();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Product product : productRepository.findAllById(hotProductIds)) {
+                products.put(product.getId(), toHotProduct(new StripedStockCounter(stripes, product.getQuantityInStock()), product));
+            }
+        });
+        logger.info("Hot SKU mode enabled for {} products", products.size());
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isHot(Long productId) {
+        return productId != null && products.containsKey(productId);
+    }
+
+    public ProductStockLevelDTO getStockLevel(Long productId) {
+        HotProduct product = products.get(productId);
+        return new ProductStockLevelDTO(productId, product.name(), product.categoryId(), (int) product.counter().sum(),
+                product.minStockQuantity(), product.maxStockQuantity());
+    }
+
+    public Optional<Integer> currentQuantity(Long productId) {
+        return Optional.ofNullable(products.get(productId)).map(product -> (int) product.counter().sum());
+    }
+
+    /**
+     * Applies a movement to the in-memory counter and journals it. Returns the stock level after the
+     * movement, or empty when an exit exceeds the available quantity.
+     */
+    public Optional<ProductStockLevelDTO> register(Long productId, MovementType type, int quantity, LocalDateTime movementDate) {
+        HotProduct product = products.get(productId);
+        if (type == MovementType.EXIT) {
+            if (!product.counter().tryRemove(quantity)) {
+                return Optional.empty();
+            }
+        } else {
+            product.counter().add(quantity);
+        }
+
+        try {
+            journal.append(productId, type, quantity, movementDate);
+        } catch (IOException e) {
+            if (type == MovementType.EXIT) {
+                product.counter().add(quantity);
+            } else {
+                product.counter().tryRemove(quantity);
+            }
+            throw new UncheckedIOException("Could not journal hot stock movement", e);
+        }
+        return Optional.of(getStockLevel(productId));
+    }
+
+    public void refresh(Product product) {
+        products.computeIfPresent(product.getId(), (id, current) -> toHotProduct(current.counter(), product));
+    }
+
+    public synchronized void evict(Long productId) {
+        if (products.remove(productId) != null) {
+            journal.discard(productId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-skus.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (journal == null) {
+            return;
+        }
+        List<HotStockJournal.Entry> entries = journal.drain();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(entries));
+            journal.compact();
+        } catch (RuntimeException | IOException e) {
+            journal.requeue(entries);
+            logger.error("Hot stock flush failed, {} movements will be retried", entries.size(), e);
+        }
+    }
+
+    private void write(List<HotStockJournal.Entry> entries) {
+        Set<Long> productIds = entries.stream().map(HotStockJournal.Entry::productId).collect(Collectors.toSet());
+        Map<Long, Long> existing = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product.getCategory().getId()));
+
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        List<StockMovement> movements = entries.stream()
+                .filter(entry -> {
+                    if (existing.containsKey(entry.productId())) {
+                        return true;
+                    }
+                    logger.warn("Dropping journaled movement {} for missing product {}", entry.sequence(), entry.productId());
+                    return false;
+                })
+                .map(entry -> {
+                    int signed = entry.type() == MovementType.ENTRY ? entry.quantity() : -entry.quantity();
+                    deltas.merge(entry.productId(), signed, Integer::sum);
+
+                    StockMovement movement = new StockMovement();
+                    movement.setProduct(productRepository.getReferenceById(entry.productId()));
+                    movement.setQuantity(entry.quantity());
+                    movement.setType(entry.type());
+                    movement.setMovementDate(entry.movementDate());
+                    return movement;
+                })
+                .toList();
+
+        productRepository.applyStockDeltas(deltas);
+        stockMovementRepository.insertAll(movements);
+        movementRollupService.record(movements);
+        movements.forEach(movement -> {
+            Long productId = movement.getProduct().getId();
+            outboxService.append(OutboxEventType.STOCK_MOVEMENT_RECORDED, productId, new StockMovementRecordedPayload(movement.getId(), productId,
+                    existing.get(productId), movement.getType(), movement.getQuantity(), movement.getMovementDate(), null));
+        });
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.STOCK, ReportCacheService.Change.MOVEMENTS),
+                deltas.keySet().stream().map(existing::get).collect(Collectors.toSet()));
+
+        HotStockCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID).orElseGet(() -> {
+            HotStockCheckpoint created = new HotStockCheckpoint();
+            created.setId(CHECKPOINT_ID);
+            return created;
+        });
+        checkpoint.setLastSequence(entries.get(entries.size() - 1).sequence());
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private HotProduct toHotProduct(StripedStockCounter counter, Product product) {
+        return new HotProduct(counter, product.getName(), product.getCategory().getId(),
+                product.getMinStockQuantity(), product.getMaxStockQuantity());
+    }
+}
@@ -0,0 +1,284 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.PrincipalCache;
+import br.inventory.control.api.dto.InventorySnapshotRestoreDTO;
+import br.inventory.control.api.exception.InvalidRequestException;
+import br.inventory.control.api.model.PriceAdjustmentJobStatus;
+import br.inventory.control.api.repository.PriceAdjustmentJobRepository;
+import br.inventory.control.api.repository.StockMovementRollupRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports and restores categories, products and stock movements as one gzip stream: a JSON header
+ * line naming the format version and the columns of each table, then each table in COPY text format
+ * ended by a {@code \.} line. Both directions go through the COPY protocol. An export reads a single
+ * consistent snapshot; a restore loads every table into temporary staging tables first and then
+ * replaces the live rows in the same transaction, so readers see either the old data or the new.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventorySnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventorySnapshotService.class);
+
+    static final String FORMAT = "inventory-snapshot";
+    static final int VERSION = 1;
+
+    // In dependency order; restore inserts in this order.
+    private static final Map<String, List<String>> TABLES = tables();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final StockMovementPartitionService partitionService;
+    private final StockMovementRollupRepository rollupRepository;
+    private final PriceAdjustmentJobRepository priceAdjustmentJobRepository;
+    private final HotStockService hotStockService;
+    private final UserService userService;
+    private final ReportCacheService reportCacheService;
+    private final PrincipalCache principalCache;
+
+    private static Map<String, List<String>> tables() {
+        Map<String, List<String>> tables = new LinkedHashMap<>();
+        tables.put("categories", List.of("id", "name", "packaging", "size"));
+        tables.put("products", List.of("id", "name", "unit_price", "unit_of_measure", "quantity_in_stock",
+                "min_stock_quantity", "max_stock_quantity", "below_min_stock", "category_id"));
+        tables.put("stock_movements", List.of("id", "movement_date", "product_id", "quantity", "type"));
+        return tables;
+    }
+
+    public void export(OutputStream out) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+                gzip.write(header());
+                CopyManager copyManager = copyManager();
+                for (Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+                    copyManager.copyOut("COPY (SELECT " + String.join(", ", table.getValue()) + " FROM " + table.getKey()
+                            + ") TO STDOUT", gzip);
+                    gzip.write("\\.\n".getBytes(StandardCharsets.US_ASCII));
+                }
+                gzip.finish();
+                gzip.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Snapshot export failed", e);
+            }
+        });
+        logger.info("Exported inventory snapshot in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces all categories, products and stock movements with the snapshot's. Assignments of users
+     * to categories that are not in the snapshot are removed, movement rollups are rebuilt from the
+     * restored movements and stock balance snapshots are discarded.
+     */
+    public InventorySnapshotRestoreDTO restore(InputStream in) {
+        if (hotStockService.isEnabled()) {
+            throw new InvalidRequestException("Snapshots cannot be restored while hot SKU mode is enabled.");
+        }
+        if (!priceAdjustmentJobRepository.findByStatusOrderByIdAsc(PriceAdjustmentJobStatus.RUNNING).isEmpty()) {
+            throw new InvalidRequestException("Snapshots cannot be restored while a price adjustment job is running.");
+        }
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        InventorySnapshotRestoreDTO result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                try {
+                    return restoreInTransaction(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (SQLException e) {
+                    throw new InvalidRequestException("Snapshot could not be loaded: " + e.getMessage());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidRequestException("Snapshot is not consistent: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        } catch (UncheckedIOException e) {
+            throw new InvalidRequestException("Snapshot could not be read: " + e.getCause().getMessage());
+        }
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        logger.info("Restored inventory snapshot {} in {} ms", result.getRowsRestored(), result.getElapsedMs());
+        return result;
+    }
+
+    private InventorySnapshotRestoreDTO restoreInTransaction(InputStream in) throws IOException, SQLException {
+        SnapshotSectionReader reader = new SnapshotSectionReader(new GZIPInputStream(in, 64 * 1024));
+        Instant createdAt = readHeader(reader.readLine());
+
+        CopyManager copyManager = copyManager();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+            String staging = "staging_" + table.getKey();
+            jdbcTemplate.execute("CREATE TEMP TABLE " + staging + " (LIKE " + table.getKey() + ") ON COMMIT DROP");
+            CopyIn copyIn = copyManager.copyIn("COPY " + staging + " (" + String.join(", ", table.getValue()) + ") FROM STDIN");
+            try {
+                reader.copySection(copyIn);
+                rows.put(table.getKey(), copyIn.endCopy());
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(movement_date) AS first, MAX(movement_date) AS last FROM staging_stock_movements");
+        if (range.get("first") != null) {
+            partitionService.ensurePartitions(((Timestamp) range.get("first")).toLocalDateTime().toLocalDate(),
+                    ((Timestamp) range.get("last")).toLocalDateTime().toLocalDate());
+        }
+
+        jdbcTemplate.execute("TRUNCATE stock_movements, stock_movement_rollups, stock_balance_snapshots, products");
+        for (Long categoryId : jdbcTemplate.queryForList(
+                "SELECT id FROM categories WHERE id NOT IN (SELECT id FROM staging_categories)", Long.class)) {
+            userService.invalidatePermissionsForCategory(categoryId);
+        }
+        jdbcTemplate.update("DELETE FROM user_categories WHERE category_id NOT IN (SELECT id FROM staging_categories)");
+        jdbcTemplate.update("DELETE FROM categories WHERE id NOT IN (SELECT id FROM staging_categories)");
+        // Kept categories may swap names with each other, so free every name before the upsert.
+        jdbcTemplate.update("UPDATE categories SET name = '~restore~' || id");
+        jdbcTemplate.update("INSERT INTO categories (id, name, packaging, size) SELECT id, name, packaging, size FROM staging_categories"
+                + " ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, packaging = EXCLUDED.packaging, size = EXCLUDED.size");
+        for (Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+            String columns = String.join(", ", table.getValue());
+            if (table.getKey().equals("stock_movements")) {
+                // Bulk load: rebuilding the keys and indexes once is far cheaper than maintaining them per row.
+                List<String> recreate = dropKeysAndIndexes(table.getKey());
+                jdbcTemplate.update("INSERT INTO stock_movements (" + columns + ") SELECT " + columns
+                        + " FROM staging_stock_movements ORDER BY movement_date");
+                recreate.forEach(jdbcTemplate::execute);
+            } else if (!table.getKey().equals("categories")) {
+                jdbcTemplate.update("INSERT INTO " + table.getKey() + " (" + columns + ") SELECT " + columns + " FROM staging_" + table.getKey());
+            }
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table.getKey() + "', 'id'),"
+                    + " COALESCE((SELECT MAX(id) FROM " + table.getKey() + "), 0) + 1, false)");
+        }
+        rollupRepository.backfillIfEmpty();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reportCacheService.invalidateAll();
+                principalCache.invalidateAll();
+            }
+        });
+        return new InventorySnapshotRestoreDTO(createdAt, rows, 0);
+    }
+
+    /**
+     * Drops the primary key, foreign keys and other indexes of {@code table} and returns the statements
+     * that create them again, taken from the catalog so they match the migrations.
+     */
+    private List<String> dropKeysAndIndexes(String table) {
+        List<String> recreate = new ArrayList<>();
+        List<Map<String, Object>> constraints = jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint"
+                        + " WHERE conrelid = ?::regclass AND contype IN ('p', 'f') ORDER BY contype DESC", table);
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                "SELECT i.indexrelid::regclass::text AS name, pg_get_indexdef(i.indexrelid) AS definition FROM pg_index i"
+                        + " WHERE i.indrelid = ?::regclass AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)", table);
+        for (Map<String, Object> constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + constraint.get("conname"));
+            recreate.add("ALTER TABLE " + table + " ADD CONSTRAINT " + constraint.get("conname") + " " + constraint.get("definition"));
+        }
+        for (Map<String, Object> index : indexes) {
+            jdbcTemplate.execute("DROP INDEX " + index.get("name"));
+            // Definitions of partitioned indexes read "ON ONLY", which would not build the partitions' indexes.
+            recreate.add(((String) index.get("definition")).replace(" ON ONLY ", " ON "));
+        }
+        return recreate;
+    }
+
+    private byte[] header() throws IOException {
+        ObjectNode header = objectMapper.createObjectNode();
+        header.put("format", FORMAT);
+        header.put("version", VERSION);
+        header.put("createdAt", Instant.now().toString());
+        ArrayNode tables = header.putArray("tables");
+        TABLES.forEach((name, columns) -> {
+            ObjectNode table = tables.addObject();
+            table.put("name", name);
+            columns.forEach(table.putArray("columns")::add);
+        });
+        return (objectMapper.writeValueAsString(header) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Instant readHeader(String line) {
+        JsonNode header;
+        try {
+            header = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Not an inventory snapshot.");
+        }
+        if (!FORMAT.equals(header.path("format").asText())) {
+            throw new InvalidRequestException("Not an inventory snapshot.");
+        }
+        if (header.path("version").asInt() != VERSION) {
+            throw new InvalidRequestException("Unsupported snapshot version: " + header.path("version").asText());
+        }
+        int index = 0;
+        for (Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+            JsonNode tableHeader = header.path("tables").path(index++);
+            List<String> columns = objectMapper.convertValue(tableHeader.path("columns"),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+            if (!table.getKey().equals(tableHeader.path("name").asText()) || !table.getValue().equals(columns)) {
+                throw new InvalidRequestException("Snapshot tables do not match version " + VERSION + ".");
+            }
+        }
+        try {
+            return Instant.parse(header.path("createdAt").asText());
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Snapshot header has no valid createdAt.");
+        }
+    }
+
+    // The transaction's connection, so COPY runs inside it.
+    private CopyManager copyManager() throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
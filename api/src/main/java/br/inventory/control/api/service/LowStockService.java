@@ -0,0 +1,73 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.LowStockTransitionDTO;
+import br.inventory.control.api.event.StockLevelChangedEvent;
+import br.inventory.control.api.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Keeps {@code products.below_min_stock} consistent at startup and pushes "crossed below min" and
+ * "recovered" transitions to subscribed dashboards once the transaction that caused them commits.
+ * Sends go through {@link SseBroadcaster}, so a slow client never holds up the stock write or other
+ * dashboards; one that falls too far behind gets a {@code reset} event and should reload the list.
+ */
+@Service
+@RequiredArgsConstructor
+public class LowStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockService.class);
+
+    private final ProductRepository productRepository;
+    private final SseBroadcaster broadcaster;
+
+    @Value("${inventory.low-stock.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private SseBroadcaster.Feed feed;
+
+    @PostConstruct
+    void init() {
+        feed = broadcaster.feed(() -> SseEmitter.event().name("reset").data(""));
+    }
+
+    // Rows written before the flag existed, or by direct SQL, are corrected once per startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFlags() {
+        int updated = productRepository.refreshBelowMinStockFlags();
+        if (updated > 0) {
+            logger.info("Refreshed below-min-stock flag for {} products", updated);
+        }
+    }
+
+    public SseEmitter subscribe(UserPrincipal user) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        feed.subscribe(emitter, user);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        LowStockTransitionDTO.Transition transition;
+        if (event.crossedBelowMin()) {
+            transition = LowStockTransitionDTO.Transition.BELOW_MIN;
+        } else if (event.recovered()) {
+            transition = LowStockTransitionDTO.Transition.RECOVERED;
+        } else {
+            return;
+        }
+
+        LowStockTransitionDTO payload = new LowStockTransitionDTO(transition, event.productId(), event.productName(),
+                event.categoryId(), event.quantityInStock(), event.minStockQuantity(), event.occurredAt());
+        feed.broadcast(event.categoryId(), SseEmitter.event().name(transition.name()).data(payload));
+    }
+}
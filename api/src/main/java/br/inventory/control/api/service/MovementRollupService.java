@@ -0,0 +1,51 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.TopMovementProductDTO;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.model.StockMovement;
+import br.inventory.control.api.repository.StockMovementRollupRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains hourly and daily movement rollups. {@link #record} must run in the transaction that
+ * writes the movements, so rollups and raw history commit or roll back together.
+ */
+@Service
+@RequiredArgsConstructor
+public class MovementRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovementRollupService.class);
+
+    private final StockMovementRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Runs before the web server accepts traffic and before the hot SKU journal replay records its movements.
+    @PostConstruct
+    void backfill() {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> rollupRepository.backfillIfEmpty()))) {
+            logger.info("Built movement rollups from existing stock movement history");
+        }
+    }
+
+    public void record(Collection<StockMovement> movements) {
+        rollupRepository.increment(movements);
+    }
+
+    public void deleteForProduct(Long productId) {
+        rollupRepository.deleteByProductId(productId);
+    }
+
+    public List<TopMovementProductDTO> findTopProducts(MovementType type, LocalDateTime from, LocalDateTime to,
+                                                       Collection<Long> categoryIds, boolean byQuantity, int limit) {
+        return rollupRepository.findTopProducts(type, from, to, categoryIds, byQuantity, limit);
+    }
+}
@@ -0,0 +1,77 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.event.OutboxEventType;
+import br.inventory.control.api.event.OutboxMessage;
+import br.inventory.control.api.event.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Drains {@code outbox_events} into the configured {@link OutboxSink}. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, deleted and delivered in one transaction: if delivery fails the
+ * delete rolls back and the batch is retried on the next poll, and relays on other nodes skip the
+ * claimed rows instead of waiting for them. Batches are delivered in id order, but with several
+ * nodes draining, later batches may reach the sink before earlier ones.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String CLAIM_SQL =
+            "DELETE FROM outbox_events WHERE id IN"
+                    + " (SELECT id FROM outbox_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)"
+                    + " RETURNING id, event_type, aggregate_id, payload::text, created_at";
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong(1), OutboxEventType.valueOf(rs.getString(2)), rs.getLong(3), rs.getString(4),
+            rs.getTimestamp(5).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final OutboxSink sink;
+
+    @Value("${inventory.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval-ms:200}")
+    public void drain() {
+        if (!outboxService.isEnabled()) {
+            return;
+        }
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> deliverNextBatch()))) {
+                // Each iteration commits one delivered batch.
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Outbox delivery failed, retrying on the next poll", e);
+        }
+    }
+
+    private boolean deliverNextBatch() {
+        List<OutboxMessage> messages = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL, MESSAGE_MAPPER, batchSize));
+        if (messages.isEmpty()) {
+            return false;
+        }
+        messages.sort(Comparator.comparingLong(OutboxMessage::id));
+        try {
+            sink.deliver(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return messages.size() == batchSize;
+    }
+}
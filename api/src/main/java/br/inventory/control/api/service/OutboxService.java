@@ -0,0 +1,109 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.event.OutboxEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes outbox events in the transaction that caused them. Events are serialized when appended and
+ * inserted with one JDBC batch just before the transaction commits, so they are stored if and only
+ * if the change is. {@link OutboxRelay} delivers them afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload) VALUES (?, ?, ?::jsonb)";
+    private static final String INSERT_PRICE_CHANGES_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload)"
+                    + " SELECT ?, id, jsonb_build_object('productId', id, 'categoryId', category_id, 'unitPrice', unit_price)"
+                    + " FROM products WHERE id = ANY(?) ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.outbox.enabled:false}")
+    private boolean enabled;
+
+    private record PendingEvent(OutboxEventType type, Long aggregateId, String payload) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(OutboxEventType type, Long aggregateId, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be appended inside a transaction");
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(new PendingEvent(type, aggregateId, toJson(payload)));
+    }
+
+    /**
+     * Records the current price of the given products, read in the same statement, for a bulk
+     * price change that bypassed the entities.
+     */
+    public void appendPriceChanges(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_PRICE_CHANGES_SQL, OutboxEventType.PRODUCT_PRICE_CHANGED.name(), productIds.toArray(Long[]::new));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + payload.getClass().getName(), e);
+        }
+    }
+
+    // Bound to the transaction; suspended along with it so an inner REQUIRES_NEW transaction gets its own.
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<PendingEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                ps.setString(1, event.type().name());
+                ps.setLong(2, event.aggregateId());
+                ps.setString(3, event.payload());
+            });
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxService.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+        }
+    }
+}
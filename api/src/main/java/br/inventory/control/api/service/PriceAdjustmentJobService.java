@@ -0,0 +1,144 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.PriceAdjustmentDTO;
+import br.inventory.control.api.dto.PriceAdjustmentJobDTO;
+import br.inventory.control.api.exception.InvalidRequestException;
+import br.inventory.control.api.exception.ResourceNotFoundException;
+import br.inventory.control.api.model.PriceAdjustmentJob;
+import br.inventory.control.api.model.PriceAdjustmentJobStatus;
+import br.inventory.control.api.repository.CategoryRepository;
+import br.inventory.control.api.repository.PriceAdjustmentJobRepository;
+import br.inventory.control.api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs price adjustments in the background, one short transaction per chunk of products in id order,
+ * so stock movements are never blocked for longer than a chunk. Each chunk commits together with the
+ * job's position; jobs still RUNNING at startup continue from there. Jobs run one at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceAdjustmentJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAdjustmentJobService.class);
+    private static final BigDecimal MIN_PERCENTAGE = new BigDecimal("-100");
+
+    private final PriceAdjustmentJobRepository jobRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ReportCacheService reportCacheService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "price-adjustment"));
+
+    @Value("${inventory.price-adjustment.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumeRunningJobs() {
+        for (PriceAdjustmentJob job : jobRepository.findByStatusOrderByIdAsc(PriceAdjustmentJobStatus.RUNNING)) {
+            logger.info("Resuming price adjustment job {} after product {}", job.getId(), job.getLastProductId());
+            executor.execute(() -> run(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PriceAdjustmentJobDTO start(PriceAdjustmentDTO dto) {
+        if (dto.getPercentage() == null || dto.getPercentage().compareTo(MIN_PERCENTAGE) < 0) {
+            throw new InvalidRequestException("Percentage must be at least -100.");
+        }
+        Long categoryId = dto.getCategoryId();
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+
+        PriceAdjustmentJob job = transactionTemplate.execute(status -> {
+            PriceAdjustmentJob created = new PriceAdjustmentJob();
+            created.setPercentage(dto.getPercentage());
+            created.setCategoryId(categoryId);
+            created.setStatus(PriceAdjustmentJobStatus.RUNNING);
+            created.setTotalCount(categoryId == null ? productRepository.count()
+                    : productRepository.countByCategoryIds(List.of(categoryId)).stream().mapToLong(row -> (Long) row[1]).sum());
+            created.setCreatedAt(Instant.now());
+            return jobRepository.save(created);
+        });
+        executor.execute(() -> run(job.getId()));
+        return PriceAdjustmentJobDTO.from(job);
+    }
+
+    public PriceAdjustmentJobDTO getJob(Long id) {
+        return jobRepository.findById(id).map(PriceAdjustmentJobDTO::from)
+                .orElseThrow(() -> new ResourceNotFoundException("Price adjustment job not found with id: " + id));
+    }
+
+    // Takes the job row lock, so it waits for a chunk in progress and the next chunk sees the cancellation.
+    public PriceAdjustmentJobDTO cancel(Long id) {
+        return transactionTemplate.execute(status -> {
+            PriceAdjustmentJob job = jobRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Price adjustment job not found with id: " + id));
+            if (job.getStatus() == PriceAdjustmentJobStatus.RUNNING) {
+                finish(job, PriceAdjustmentJobStatus.CANCELLED);
+            }
+            return PriceAdjustmentJobDTO.from(job);
+        });
+    }
+
+    private void run(Long jobId) {
+        try {
+            while (!Thread.currentThread().isInterrupted() && Boolean.TRUE.equals(transactionTemplate.execute(status -> applyNextChunk(jobId)))) {
+                // Each iteration commits one chunk.
+            }
+        } catch (RuntimeException e) {
+            logger.error("Price adjustment job {} failed", jobId, e);
+            String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findByIdForUpdate(jobId).ifPresent(job -> {
+                job.setErrorMessage(message.length() > 1000 ? message.substring(0, 1000) : message);
+                finish(job, PriceAdjustmentJobStatus.FAILED);
+            }));
+        }
+    }
+
+    private boolean applyNextChunk(Long jobId) {
+        PriceAdjustmentJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || job.getStatus() != PriceAdjustmentJobStatus.RUNNING) {
+            return false;
+        }
+        List<Long> ids = productRepository.adjustPricesAfter(job.getLastProductId(), job.getCategoryId(), job.getPercentage(), chunkSize);
+        if (ids.isEmpty()) {
+            finish(job, PriceAdjustmentJobStatus.COMPLETED);
+            logger.info("Price adjustment job {} completed, {} products updated", jobId, job.getUpdatedCount());
+            return false;
+        }
+        outboxService.appendPriceChanges(ids);
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.CATALOG),
+                job.getCategoryId() == null ? null : List.of(job.getCategoryId()));
+        job.setLastProductId(ids.get(ids.size() - 1));
+        job.setUpdatedCount(job.getUpdatedCount() + ids.size());
+        return true;
+    }
+
+    private void finish(PriceAdjustmentJob job, PriceAdjustmentJobStatus status) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+    }
+}
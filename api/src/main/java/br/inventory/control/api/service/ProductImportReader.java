@@ -0,0 +1,137 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.ReportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads import rows one at a time from a CSV stream with a header line, or from NDJSON, as field
+ * name to text value. Quoted CSV fields may contain commas, doubled quotes and line breaks.
+ */
+class ProductImportReader {
+
+    /**
+     * A parsed row, or the reason it could not be parsed.
+     */
+    record Row(long number, Map<String, String> fields, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ReportFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long rows;
+
+    ProductImportReader(InputStream in, ReportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next non-blank row, or null at the end of the stream.
+     */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        if (format == ReportFormat.NDJSON) {
+            return parseJson(line);
+        }
+        if (header == null) {
+            header = parseCsv(line).stream().map(String::trim).toList();
+            return next();
+        }
+        List<String> values = parseCsv(line);
+        long number = ++rows;
+        if (values.size() != header.size()) {
+            return new Row(number, null, "Expected " + header.size() + " columns but found " + values.size() + ".");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new Row(number, fields, null);
+    }
+
+    private Row parseJson(String line) {
+        long number = ++rows;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            return new Row(number, null, "Invalid JSON.");
+        }
+        if (!node.isObject()) {
+            return new Row(number, null, "Each line must be a JSON object.");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!field.getValue().isNull()) {
+                fields.put(field.getKey(), field.getValue().asText());
+            }
+        }
+        return new Row(number, fields, null);
+    }
+
+    private List<String> parseCsv(String firstLine) throws IOException {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        String line = firstLine;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // A quoted field continues on the next line.
+                String nextLine = reader.readLine();
+                if (nextLine == null) {
+                    break;
+                }
+                value.append('\n');
+                line = nextLine;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
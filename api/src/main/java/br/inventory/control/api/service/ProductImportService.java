@@ -0,0 +1,241 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.ProductImportResultDTO;
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+import br.inventory.control.api.dto.ReportFormat;
+import br.inventory.control.api.event.OutboxEventType;
+import br.inventory.control.api.event.StockLevelChangedEvent;
+import br.inventory.control.api.model.Category;
+import br.inventory.control.api.model.Product;
+import br.inventory.control.api.repository.CategoryRepository;
+import br.inventory.control.api.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from a CSV or NDJSON stream while it is being uploaded. Rows are validated as they
+ * are read and inserted through JDBC batches of {@code batch-size}, each batch in its own
+ * transaction with ids taken from the products sequence up front. Rejected rows are reported with
+ * their row number; batches committed before a broken upload stay imported.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductService productService;
+    private final UserService userService;
+    private final ReportCacheService reportCacheService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.product-import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${inventory.product-import.max-errors:1000}")
+    private int maxErrors;
+
+    private record PendingProduct(long row, Product product) {
+    }
+
+    // Per-import state: categories are read once and the caller's permission checked once per category.
+    private final class ImportRun {
+        private final UserPrincipal user = userService.getAuthenticatedUser();
+        private final Map<Long, Category> categoriesById = new HashMap<>();
+        private final Map<String, Category> categoriesByName = new HashMap<>();
+        private final List<ProductImportResultDTO.RowError> errors = new ArrayList<>();
+        private final List<PendingProduct> batch = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        private ImportRun() {
+            for (Category category : categoryRepository.findAll()) {
+                categoriesById.put(category.getId(), category);
+                categoriesByName.putIfAbsent(category.getName().toLowerCase(), category);
+            }
+        }
+
+        private void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportResultDTO.RowError(row, message));
+            }
+        }
+    }
+
+    public ProductImportResultDTO importProducts(InputStream in, ReportFormat format) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        ProductImportReader reader = new ProductImportReader(in, format, objectMapper);
+        try {
+            for (ProductImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                run.rowsRead++;
+                if (row.error() != null) {
+                    run.reject(row.number(), row.error());
+                    continue;
+                }
+                try {
+                    run.batch.add(new PendingProduct(row.number(), toProduct(row.fields(), run)));
+                } catch (IllegalArgumentException e) {
+                    run.reject(row.number(), e.getMessage());
+                }
+                if (run.batch.size() >= batchSize) {
+                    insertBatch(run);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Import stream could not be read after " + run.rowsRead + " rows", e);
+        }
+        insertBatch(run);
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        double rowsPerSecond = run.rowsRead * 1_000_000_000.0 / elapsedNanos;
+        logger.info("Imported {} of {} products in {} ms ({} rows/s)", run.imported, run.rowsRead, elapsedNanos / 1_000_000,
+                Math.round(rowsPerSecond));
+        return new ProductImportResultDTO(run.rowsRead, run.imported, run.rejected, elapsedNanos / 1_000_000,
+                Math.round(rowsPerSecond * 10) / 10.0, run.errors, run.errors.size() < run.rejected);
+    }
+
+    private void insertBatch(ImportRun run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+        List<Product> products = run.batch.stream().map(PendingProduct::product).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = productRepository.allocateIds(products.size());
+                for (int i = 0; i < products.size(); i++) {
+                    products.get(i).setId(ids.get(i));
+                }
+                productRepository.insertAll(products);
+                for (Product product : products) {
+                    outboxService.append(OutboxEventType.PRODUCT_CREATED, product.getId(), productService.toDTO(product));
+                    // As for createProduct, so low-stock alerts and the stock stream see imported products.
+                    eventPublisher.publishEvent(StockLevelChangedEvent.of(ProductStockLevelDTO.from(product),
+                            product.getQuantityInStock(), false));
+                }
+                Set<Long> categoryIds = products.stream().map(product -> product.getCategory().getId()).collect(Collectors.toSet());
+                reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.STOCK, ReportCacheService.Change.CATALOG), categoryIds);
+            });
+            run.imported += products.size();
+        } catch (DataAccessException e) {
+            String message = "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            run.batch.forEach(pending -> run.reject(pending.row(), message));
+        }
+        run.batch.clear();
+    }
+
+    private Product toProduct(Map<String, String> fields, ImportRun run) {
+        Product product = new Product();
+        product.setName(requiredText(fields, "name"));
+        product.setUnitOfMeasure(optionalText(fields, "unitOfMeasure"));
+        product.setUnitPrice(parsePrice(fields));
+        product.setQuantityInStock(parseCount(fields, "quantityInStock"));
+        product.setMinStockQuantity(parseCount(fields, "minStockQuantity"));
+        product.setMaxStockQuantity(parseCount(fields, "maxStockQuantity"));
+        if (product.getMinStockQuantity() > product.getMaxStockQuantity()) {
+            throw new IllegalArgumentException("minStockQuantity must not exceed maxStockQuantity.");
+        }
+        product.setCategory(resolveCategory(fields, run));
+        product.refreshBelowMinStock();
+        return product;
+    }
+
+    private Category resolveCategory(Map<String, String> fields, ImportRun run) {
+        String categoryId = optionalText(fields, "categoryId");
+        String categoryName = optionalText(fields, "categoryName");
+        Category category;
+        if (categoryId != null) {
+            try {
+                category = run.categoriesById.get(Long.parseLong(categoryId));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("categoryId must be a number.");
+            }
+        } else if (categoryName != null) {
+            category = run.categoriesByName.get(categoryName.toLowerCase());
+        } else {
+            throw new IllegalArgumentException("categoryId or categoryName is required.");
+        }
+        if (category == null) {
+            throw new IllegalArgumentException("Category not found: " + (categoryId != null ? categoryId : categoryName));
+        }
+        if (!productService.hasPermission(run.user, category.getId())) {
+            throw new IllegalArgumentException("User not permitted to manage products in category " + category.getId() + ".");
+        }
+        return category;
+    }
+
+    private static BigDecimal parsePrice(Map<String, String> fields) {
+        BigDecimal price;
+        try {
+            price = new BigDecimal(requiredText(fields, "unitPrice"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("unitPrice must be a number.");
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("unitPrice must not be negative.");
+        }
+        return price;
+    }
+
+    private static int parseCount(Map<String, String> fields, String name) {
+        int value;
+        try {
+            value = Integer.parseInt(requiredText(fields, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must not be negative.");
+        }
+        return value;
+    }
+
+    private static String requiredText(Map<String, String> fields, String name) {
+        String value = optionalText(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required.");
+        }
+        return value;
+    }
+
+    private static String optionalText(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(name + " must be at most " + MAX_TEXT_LENGTH + " characters.");
+        }
+        return value;
+    }
+}
@@ -1,44 +1,103 @@
 package br.inventory.control.api.service;
 
-import br.inventory.control.api.dto.PriceAdjustmentDTO;
+import br.inventory.control.api.config.security.UserPrincipal;
 import br.inventory.control.api.dto.ProductDTO;
+import br.inventory.control.api.dto.ProductPageDTO;
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+import br.inventory.control.api.dto.StockMovementPageDTO;
 import br.inventory.control.api.dto.StockMovementResponseDTO;
+import br.inventory.control.api.event.OutboxEventType;
+import br.inventory.control.api.event.ProductDeletedPayload;
+import br.inventory.control.api.event.StockLevelChangedEvent;
+import br.inventory.control.api.exception.InvalidRequestException;
 import br.inventory.control.api.exception.ResourceNotFoundException;
 import br.inventory.control.api.exception.UnauthorizedOperationException;
 import br.inventory.control.api.model.Category;
+import br.inventory.control.api.model.MovementType;
 import br.inventory.control.api.model.Product;
-import br.inventory.control.api.model.Role;
-import br.inventory.control.api.model.User;
 import br.inventory.control.api.repository.CategoryRepository;
 import br.inventory.control.api.repository.ProductRepository;
+import br.inventory.control.api.repository.ProductSpecifications;
 import br.inventory.control.api.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int RECENT_MOVEMENTS = 10;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StockMovementRepository stockMovementRepository;
     private final UserService userService;
+    private final HotStockService hotStockService;
+    private final MovementRollupService movementRollupService;
+    private final StockSnapshotService stockSnapshotService;
+    private final ReportCacheService reportCacheService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
-    public List<ProductDTO> getAllProducts() {
-        User currentUser = userService.getAuthenticatedUser();
-        List<Product> products;
-
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getAllowedCategories().isEmpty()) {
-            products = productRepository.findAllByOrderByNameAsc();
-        } else {
-            products = productRepository.findByCategoryIn(currentUser.getAllowedCategories());
+    public ProductPageDTO getProducts(String cursor, int size, Long categoryId, boolean lowStock, String namePrefix) {
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Specification<Product> specification = Specification.unrestricted();
+        if (!currentUser.canAccessAllCategories()) {
+            specification = specification.and(ProductSpecifications.inCategories(currentUser.getAllowedCategoryIds()));
+        }
+        if (categoryId != null) {
+            specification = specification.and(ProductSpecifications.inCategory(categoryId));
+        }
+        if (lowStock) {
+            specification = specification.and(ProductSpecifications.belowMinStock());
+        }
+        if (namePrefix != null && !namePrefix.isBlank()) {
+            specification = specification.and(ProductSpecifications.nameStartsWith(namePrefix));
         }
-        return products.stream().map(this::toDTO).collect(Collectors.toList());
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> keys = CursorCodec.decode(cursor, 2);
+            try {
+                position = ScrollPosition.forward(Map.of("name", keys.get(0), "id", Long.valueOf(keys.get(1))));
+            } catch (NumberFormatException | NullPointerException e) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        ScrollPosition start = position;
+        Window<Product> window = productRepository.findBy(specification, query -> query
+                .sortBy(Sort.by("name", "id"))
+                .limit(pageSize)
+                .project("category")
+                .scroll(start));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Product last = window.getContent().get(window.size() - 1);
+            nextCursor = CursorCodec.encode(last.getName(), last.getId());
+        }
+        return new ProductPageDTO(window.getContent().stream().map(this::toDTO).collect(Collectors.toList()), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -47,19 +106,49 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         checkPermission(product.getCategory());
         ProductDTO dto = toDTO(product);
-        dto.setMovements(stockMovementRepository.findByProductId(id).stream().map(mov ->
-                StockMovementResponseDTO.builder()
-                        .id(mov.getId())
-                        .productId(mov.getProduct().getId())
-                        .productName(mov.getProduct().getName())
-                        .movementDate(mov.getMovementDate())
-                        .quantity(mov.getQuantity())
-                        .type(mov.getType())
-                        .build()
-        ).collect(Collectors.toList()));
+        dto.setMovements(stockMovementRepository.findHistory(id, null, null, null, null, null, RECENT_MOVEMENTS));
         return dto;
     }
 
+    @Transactional(readOnly = true)
+    public StockMovementPageDTO getProductMovements(Long id, String cursor, int size, LocalDateTime from, LocalDateTime to,
+                                                    MovementType type) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        checkPermission(product.getCategory());
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime beforeDate = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> keys = CursorCodec.decode(cursor, 2);
+            try {
+                beforeDate = LocalDateTime.parse(keys.get(0));
+                beforeId = Long.valueOf(keys.get(1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // One extra row tells whether another page exists.
+        List<StockMovementResponseDTO> movements = stockMovementRepository.findHistory(id, from, to, type, beforeDate, beforeId, pageSize + 1);
+        String nextCursor = null;
+        if (movements.size() > pageSize) {
+            movements = movements.subList(0, pageSize);
+            StockMovementResponseDTO last = movements.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getMovementDate(), last.getId());
+        }
+        return new StockMovementPageDTO(movements, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public StockBalanceItemDTO getStockBalanceAsOf(Long id, LocalDateTime asOf) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        checkPermission(product.getCategory());
+        return stockSnapshotService.getBalancesAsOf(asOf, id, null).get(0);
+    }
+
     @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
         Category category = categoryRepository.findById(productDTO.getCategoryId())
@@ -67,31 +156,38 @@ public class ProductService {
         checkPermission(category);
         Product product = toEntity(productDTO);
         product.setCategory(category);
+        product.refreshBelowMinStock();
         Product savedProduct = productRepository.save(product);
-        return toDTO(savedProduct);
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.STOCK, ReportCacheService.Change.CATALOG),
+                List.of(category.getId()));
+        eventPublisher.publishEvent(StockLevelChangedEvent.of(ProductStockLevelDTO.from(savedProduct),
+                savedProduct.getQuantityInStock(), false));
+        ProductDTO created = toDTO(savedProduct);
+        outboxService.append(OutboxEventType.PRODUCT_CREATED, created.getId(), created);
+        return created;
     }
 
-    @Transactional
-    public void adjustAllPrices(PriceAdjustmentDTO dto) {
-        productRepository.adjustPriceByPercentage(dto.getPercentage());
+    public void checkPermission(Category category) {
+        checkPermission(category.getId());
     }
 
-    public void checkPermission(Category category) {
-        User currentUser = userService.getAuthenticatedUser();
-        if (currentUser.getRole() == Role.EMPLOYEE &&
-                !currentUser.getAllowedCategories().isEmpty() &&
-                !currentUser.getAllowedCategories().contains(category)) {
+    public void checkPermission(Long categoryId) {
+        if (!hasPermission(userService.getAuthenticatedUser(), categoryId)) {
             throw new UnauthorizedOperationException("User not permitted to manage products in this category.");
         }
     }
 
-    private ProductDTO toDTO(Product product) {
+    public boolean hasPermission(UserPrincipal user, Long categoryId) {
+        return user.canAccessCategory(categoryId);
+    }
+
+    public ProductDTO toDTO(Product product) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setUnitPrice(product.getUnitPrice());
         dto.setUnitOfMeasure(product.getUnitOfMeasure());
-        dto.setQuantityInStock(product.getQuantityInStock());
+        dto.setQuantityInStock(hotStockService.currentQuantity(product.getId()).orElse(product.getQuantityInStock()));
         dto.setMinStockQuantity(product.getMinStockQuantity());
         dto.setMaxStockQuantity(product.getMaxStockQuantity());
 
@@ -121,11 +217,17 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         checkPermission(product.getCategory());
+        Long previousCategoryId = product.getCategory().getId();
+        ProductStockLevelDTO before = ProductStockLevelDTO.from(product);
+        boolean wasBelowMin = product.isBelowMinStock();
 
         product.setName(productDTO.getName());
         product.setUnitPrice(productDTO.getUnitPrice());
         product.setUnitOfMeasure(productDTO.getUnitOfMeasure());
-        product.setQuantityInStock(productDTO.getQuantityInStock());
+        // The in-memory counter owns the quantity of hot SKUs; it only changes through movements.
+        if (!hotStockService.isHot(id)) {
+            product.setQuantityInStock(productDTO.getQuantityInStock());
+        }
         product.setMinStockQuantity(productDTO.getMinStockQuantity());
         product.setMaxStockQuantity(productDTO.getMaxStockQuantity());
 
@@ -136,8 +238,20 @@ public class ProductService {
             product.setCategory(category);
         }
 
+        product.refreshBelowMinStock();
         Product updatedProduct = productRepository.save(product);
-        return toDTO(updatedProduct);
+        hotStockService.refresh(updatedProduct);
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.STOCK, ReportCacheService.Change.CATALOG),
+                List.of(previousCategoryId, updatedProduct.getCategory().getId()));
+        ProductStockLevelDTO after = ProductStockLevelDTO.from(updatedProduct);
+        if (before.getQuantityInStock() != after.getQuantityInStock()
+                || before.getMinStockQuantity() != after.getMinStockQuantity()
+                || before.getMaxStockQuantity() != after.getMaxStockQuantity()) {
+            eventPublisher.publishEvent(StockLevelChangedEvent.of(after, before.getQuantityInStock(), wasBelowMin));
+        }
+        ProductDTO updated = toDTO(updatedProduct);
+        outboxService.append(OutboxEventType.PRODUCT_UPDATED, updated.getId(), updated);
+        return updated;
     }
 
     @Transactional
@@ -147,7 +261,19 @@ public class ProductService {
         checkPermission(product.getCategory());
         
         stockMovementRepository.deleteByProductId(id);
+        movementRollupService.deleteForProduct(id);
+        stockSnapshotService.deleteForProduct(id);
         
         productRepository.delete(product);
+        outboxService.append(OutboxEventType.PRODUCT_DELETED, id, new ProductDeletedPayload(id, product.getCategory().getId()));
+        reportCacheService.invalidate(EnumSet.allOf(ReportCacheService.Change.class), List.of(product.getCategory().getId()));
+
+        // Eviction discards the product's unflushed hot movements, so it must wait until the delete is committed.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hotStockService.evict(id);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.ReportCacheStatsDTO;
+import br.inventory.control.api.dto.ReportType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches report results by report type, the set of categories the report reads and its parameters.
+ * ADMINs share the entries scoped to all categories, and employees with the same allowed categories
+ * share theirs. Writes invalidate the entries of the reports that depend on what changed and whose
+ * scope overlaps the changed categories, once their transaction commits. A result that was being
+ * computed while a matching invalidation happened is returned but not kept.
+ */
+@Service
+public class ReportCacheService {
+
+    /**
+     * What a write changed, matched against what each report reads.
+     */
+    public enum Change {
+        STOCK,
+        CATALOG,
+        CATEGORY,
+        MOVEMENTS
+    }
+
+    private static final Object LOADING = new Object();
+
+    private static final Map<ReportType, Set<Change>> DEPENDENCIES = new EnumMap<>(Map.of(
+            ReportType.PRICE_LIST, EnumSet.of(Change.CATALOG, Change.CATEGORY),
+            ReportType.STOCK_BALANCE, EnumSet.of(Change.STOCK, Change.CATALOG),
+            ReportType.PRODUCT_COUNT_BY_CATEGORY, EnumSet.of(Change.CATALOG, Change.CATEGORY),
+            ReportType.TOP_MOVEMENTS, EnumSet.of(Change.MOVEMENTS, Change.CATALOG)));
+
+    @Value("${inventory.report-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.report-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${inventory.report-cache.max-entries:1000}")
+    private int maxEntries;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<ReportType, LongAdder> hits = new EnumMap<>(ReportType.class);
+    private final Map<ReportType, LongAdder> misses = new EnumMap<>(ReportType.class);
+    private final LongAdder invalidations = new LongAdder();
+
+    // A null scope stands for all categories.
+    private record Key(ReportType report, Set<Long> scope, List<Object> params) {
+
+        boolean affectedBy(Set<Change> changes, Set<Long> categoryIds) {
+            return !Collections.disjoint(DEPENDENCIES.get(report), changes)
+                    && (scope == null || categoryIds == null || !Collections.disjoint(scope, categoryIds));
+        }
+    }
+
+    // Compared by identity, so a load only replaces the placeholder it put itself.
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAtMillis;
+
+        private Entry(Object value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    public ReportCacheService() {
+        for (ReportType report : ReportType.values()) {
+            hits.put(report, new LongAdder());
+            misses.put(report, new LongAdder());
+        }
+    }
+
+    /**
+     * Returns the cached result for the report, scope and parameters, computing it with
+     * {@code loader} on a miss. {@code scope} is the set of category ids the report reads, or
+     * null when it reads all of them.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportType report, Collection<Long> scope, Supplier<T> loader, Object... params) {
+        if (!enabled || !DEPENDENCIES.containsKey(report)) {
+            return loader.get();
+        }
+        Key key = new Key(report, scope == null ? null : Set.copyOf(scope), Arrays.asList(params.clone()));
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.value != LOADING && cached.expiresAtMillis > now) {
+            hits.get(report).increment();
+            return (T) cached.value;
+        }
+
+        misses.get(report).increment();
+        Entry placeholder = new Entry(LOADING, now + ttlMs);
+        boolean tracked = hasRoom(now) && (cached == null
+                ? entries.putIfAbsent(key, placeholder) == null
+                : entries.replace(key, cached, placeholder));
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            if (tracked) {
+                entries.remove(key, placeholder);
+            }
+            throw e;
+        }
+        if (tracked) {
+            entries.replace(key, placeholder, new Entry(value, now + ttlMs));
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entries that depend on {@code changes} and read any of {@code categoryIds} (all
+     * entries when null). Inside a transaction this happens after commit.
+     */
+    public void invalidate(Set<Change> changes, Collection<Long> categoryIds) {
+        Set<Long> categories = categoryIds == null ? null : Set.copyOf(categoryIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(changes, categories);
+                }
+            });
+        } else {
+            evict(changes, categories);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.report-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.value != LOADING && entry.expiresAtMillis <= now);
+    }
+
+    public ReportCacheStatsDTO getStats() {
+        Map<ReportType, ReportCacheStatsDTO.Counts> reports = new EnumMap<>(ReportType.class);
+        long totalHits = 0;
+        long totalMisses = 0;
+        for (ReportType report : DEPENDENCIES.keySet()) {
+            long reportHits = hits.get(report).sum();
+            long reportMisses = misses.get(report).sum();
+            reports.put(report, new ReportCacheStatsDTO.Counts(reportHits, reportMisses));
+            totalHits += reportHits;
+            totalMisses += reportMisses;
+        }
+        return new ReportCacheStatsDTO(entries.size(), totalHits, totalMisses, invalidations.sum(), reports);
+    }
+
+    private void evict(Set<Change> changes, Set<Long> categoryIds) {
+        entries.keySet().removeIf(key -> {
+            if (key.affectedBy(changes, categoryIds)) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.value != LOADING && entry.expiresAtMillis <= now);
+        }
+        return entries.size() < maxEntries;
+    }
+}
@@ -0,0 +1,222 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.ReportJobDTO;
+import br.inventory.control.api.dto.ReportJobRequestDTO;
+import br.inventory.control.api.dto.ReportType;
+import br.inventory.control.api.exception.InvalidRequestException;
+import br.inventory.control.api.exception.ResourceNotFoundException;
+import br.inventory.control.api.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Computes reports off the request threads on a bounded pool. Each user may have a limited number of
+ * queued or running jobs; results are written to {@code directory} as JSON and served from there until
+ * {@code retention-minutes} after the job finished. Jobs live in memory, so a restart discards them
+ * along with their results.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Pattern RESULT_FILE = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.json");
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${inventory.report-jobs.threads:2}")
+    private int threads;
+
+    @Value("${inventory.report-jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${inventory.report-jobs.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${inventory.report-jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${inventory.report-jobs.directory:data/report-jobs}")
+    private Path directory;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate readOnlyTransaction;
+
+    private static final class ReportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final Long userId;
+        private final ReportJobRequestDTO request;
+        private final Instant createdAt = Instant.now();
+        private volatile ReportJobDTO.Status status = ReportJobDTO.Status.QUEUED;
+        private volatile Instant finishedAt;
+        private volatile String errorMessage;
+        private volatile Path result;
+
+        private ReportJob(Long userId, ReportJobRequestDTO request) {
+            this.userId = userId;
+            this.request = request;
+        }
+
+        private boolean isActive() {
+            return status == ReportJobDTO.Status.QUEUED || status == ReportJobDTO.Status.RUNNING;
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        // Results from a previous run are unreachable: jobs are not kept across restarts. Only files named
+        // like a job result are removed, since the directory is configurable and may hold other data.
+        try (DirectoryStream<Path> results = Files.newDirectoryStream(directory,
+                file -> RESULT_FILE.matcher(file.getFileName().toString()).matches() && Files.isRegularFile(file))) {
+            for (Path result : results) {
+                Files.deleteIfExists(result);
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "report-job-" + threadNumber.incrementAndGet()));
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ReportJobDTO submit(UserPrincipal user, ReportJobRequestDTO request) {
+        if (request.getType() == null) {
+            throw new InvalidRequestException("Report type is required.");
+        }
+        if (request.getType() == ReportType.TOP_MOVEMENTS && request.getMovementType() == null) {
+            throw new InvalidRequestException("movementType is required for TOP_MOVEMENTS.");
+        }
+
+        ReportJob job = new ReportJob(user.getId(), request);
+        synchronized (jobs) {
+            long active = jobs.values().stream().filter(j -> j.userId.equals(user.getId()) && j.isActive()).count();
+            if (active >= maxActivePerUser) {
+                throw new TooManyRequestsException("At most " + maxActivePerUser + " report jobs may be queued or running per user.");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            // Reports are scoped to the caller's categories, so the job runs with the caller's security context.
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job), SecurityContextHolder.getContext()));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new TooManyRequestsException("The report queue is full, try again later.");
+        }
+        return toDTO(job);
+    }
+
+    public ReportJobDTO getJob(UserPrincipal user, String id) {
+        return toDTO(findJob(user, id));
+    }
+
+    public Path getResult(UserPrincipal user, String id) {
+        ReportJob job = findJob(user, id);
+        if (job.status != ReportJobDTO.Status.COMPLETED) {
+            throw new InvalidRequestException("Report job " + id + " has no result, its status is " + job.status + ".");
+        }
+        return job.result;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.report-jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.plus(Duration.ofMinutes(retentionMinutes)).isAfter(now)) {
+                return false;
+            }
+            if (job.result != null) {
+                try {
+                    Files.deleteIfExists(job.result);
+                } catch (IOException e) {
+                    logger.warn("Could not delete report job result {}", job.result, e);
+                }
+            }
+            return true;
+        });
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobDTO.Status.RUNNING;
+        try {
+            Object result = readOnlyTransaction.execute(status -> compute(job.request));
+            Path file = directory.resolve(job.id + ".json");
+            objectMapper.writeValue(file.toFile(), result);
+            job.result = file;
+            job.status = ReportJobDTO.Status.COMPLETED;
+        } catch (RuntimeException | IOException e) {
+            logger.error("Report job {} ({}) failed", job.id, job.request.getType(), e);
+            String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            job.errorMessage = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+            job.status = ReportJobDTO.Status.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private Object compute(ReportJobRequestDTO request) {
+        return switch (request.getType()) {
+            case PRICE_LIST -> reportService.getPriceList();
+            case STOCK_BALANCE -> reportService.getStockBalance(request.getAsOf(), request.getCategoryId());
+            case BELOW_MIN_STOCK -> reportService.getProductsBelowMinStock();
+            case PRODUCT_COUNT_BY_CATEGORY -> reportService.getProductCountByCategory();
+            case TOP_MOVEMENT_PRODUCTS -> reportService.getTopMovementProductsSummary();
+            case TOP_MOVEMENTS -> reportService.getTopMovementProducts(request.getMovementType(),
+                    request.getWindow() == null ? "24h" : request.getWindow(), request.getFrom(), request.getTo(),
+                    request.getMetric() == null ? "count" : request.getMetric(), request.getLimit() == null ? 10 : request.getLimit());
+        };
+    }
+
+    private ReportJob findJob(UserPrincipal user, String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null || !job.userId.equals(user.getId())) {
+            throw new ResourceNotFoundException("Report job not found with id: " + id);
+        }
+        return job;
+    }
+
+    private ReportJobDTO toDTO(ReportJob job) {
+        Instant finishedAt = job.finishedAt;
+        return new ReportJobDTO(job.id, job.request.getType(), job.status, job.createdAt, finishedAt,
+                finishedAt == null ? null : finishedAt.plus(Duration.ofMinutes(retentionMinutes)), job.errorMessage);
+    }
+}
@@ -1,87 +1,177 @@
 package br.inventory.control.api.service;
 
+import br.inventory.control.api.config.security.UserPrincipal;
 import br.inventory.control.api.dto.*;
+import br.inventory.control.api.exception.InvalidRequestException;
+import br.inventory.control.api.exception.UnauthorizedOperationException;
+import br.inventory.control.api.model.MovementType;
 import br.inventory.control.api.model.Product;
-import br.inventory.control.api.model.Role;
-import br.inventory.control.api.model.User;
 import br.inventory.control.api.repository.ProductRepository;
-import br.inventory.control.api.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
+    private static final Pattern WINDOW_PATTERN = Pattern.compile("(\\d{1,4})([hd])");
+    private static final int MAX_TOP_LIMIT = 100;
+
     private final ProductRepository productRepository;
-    private final StockMovementRepository stockMovementRepository;
+    private final MovementRollupService movementRollupService;
+    private final StockSnapshotService stockSnapshotService;
     private final UserService userService;
+    private final ReportCacheService reportCacheService;
 
     public List<PriceListItemDTO> getPriceList() {
-        return getVisibleProducts().stream()
+        Collection<Long> scope = visibleCategoryIds(userService.getAuthenticatedUser());
+        return reportCacheService.get(ReportType.PRICE_LIST, scope, () -> findProducts(scope).stream()
                 .map(p -> new PriceListItemDTO(p.getName(), p.getUnitPrice(), p.getCategory().getName()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
-    public List<StockBalanceItemDTO> getStockBalance() {
-        return getVisibleProducts().stream()
+    /**
+     * Stock balance of the visible products, optionally within one category. With {@code asOf} the
+     * balances are those at that time, valued at the current unit prices; only current balances
+     * are cached.
+     */
+    public List<StockBalanceItemDTO> getStockBalance(LocalDateTime asOf, Long categoryId) {
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        if (categoryId != null && !currentUser.canAccessCategory(categoryId)) {
+            throw new UnauthorizedOperationException("User not permitted to view products in this category.");
+        }
+        Collection<Long> scope = categoryId != null ? List.of(categoryId) : visibleCategoryIds(currentUser);
+        if (asOf != null) {
+            return stockSnapshotService.getBalancesAsOf(asOf, null, scope);
+        }
+        return reportCacheService.get(ReportType.STOCK_BALANCE, scope, () -> findProducts(scope).stream()
                 .map(p -> {
                     BigDecimal totalValue = p.getUnitPrice().multiply(new BigDecimal(p.getQuantityInStock()));
                     return new StockBalanceItemDTO(p.getName(), p.getQuantityInStock(), totalValue);
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
-    public List<BelowMinStockProductDTO> getProductsBelowMinStock() {
-        User currentUser = userService.getAuthenticatedUser();
-        List<Product> products;
+    /**
+     * Streams the price list through a forward-only cursor; rows are handed to the consumer as the
+     * database returns them instead of being collected first.
+     */
+    @Transactional(readOnly = true)
+    public void streamPriceList(UserPrincipal currentUser, Consumer<PriceListItemDTO> consumer) {
+        try (Stream<PriceListItemDTO> rows = currentUser.canAccessAllCategories()
+                ? productRepository.streamPriceList()
+                : productRepository.streamPriceListByCategoryIds(currentUser.getAllowedCategoryIds())) {
+            rows.forEach(consumer);
+        }
+    }
 
-        // This query requires a custom method in the repository
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getAllowedCategories().isEmpty()) {
-            products = productRepository.findByQuantityInStockLessThan(Integer.MAX_VALUE); // Simplified for example
-        } else {
-            products = productRepository.findByQuantityInStockLessThanAndCategoryIn(Integer.MAX_VALUE, currentUser.getAllowedCategories());
+    @Transactional(readOnly = true)
+    public void streamStockBalance(UserPrincipal currentUser, Consumer<StockBalanceItemDTO> consumer) {
+        try (Stream<Object[]> rows = currentUser.canAccessAllCategories()
+                ? productRepository.streamStockBalance()
+                : productRepository.streamStockBalanceByCategoryIds(currentUser.getAllowedCategoryIds())) {
+            rows.forEach(row -> {
+                int quantityInStock = (Integer) row[1];
+                BigDecimal totalValue = ((BigDecimal) row[2]).multiply(new BigDecimal(quantityInStock));
+                consumer.accept(new StockBalanceItemDTO((String) row[0], quantityInStock, totalValue));
+            });
         }
+    }
+
+    public List<BelowMinStockProductDTO> getProductsBelowMinStock() {
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+        List<Product> products = currentUser.canAccessAllCategories()
+                ? productRepository.findByBelowMinStockTrueOrderByNameAsc()
+                : productRepository.findByBelowMinStockTrueAndCategoryIdInOrderByNameAsc(currentUser.getAllowedCategoryIds());
 
         return products.stream()
-                .filter(p -> p.getQuantityInStock() < p.getMinStockQuantity())
                 .map(p -> new BelowMinStockProductDTO(p.getName(), p.getQuantityInStock(), p.getMinStockQuantity()))
                 .collect(Collectors.toList());
     }
 
     public List<ProductCountByCategoryDTO> getProductCountByCategory() {
-        User currentUser = userService.getAuthenticatedUser();
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getAllowedCategories().isEmpty()) {
-            return productRepository.countProductsByCategory();
-        } else {
-            return productRepository.countProductsByCategoryFiltered(currentUser.getAllowedCategories());
-        }
+        Collection<Long> scope = visibleCategoryIds(userService.getAuthenticatedUser());
+        return reportCacheService.get(ReportType.PRODUCT_COUNT_BY_CATEGORY, scope, () -> scope == null
+                ? productRepository.countProductsByCategory()
+                : productRepository.countProductsByCategoryFiltered(scope));
     }
 
     public TopMovementProductDTO getTopEntryProduct() {
-        return stockMovementRepository.findTopEntryProducts().stream()
-                .findFirst()
-                .map(result -> new TopMovementProductDTO((String) result[0], (Long) result[1]))
-                .orElse(null);
+        return findTopProducts(MovementType.ENTRY, null, null, false, 1).stream().findFirst().orElse(null);
     }
 
     public TopMovementProductDTO getTopExitProduct() {
-        return stockMovementRepository.findTopExitProducts().stream()
-                .findFirst()
-                .map(result -> new TopMovementProductDTO((String) result[0], (Long) result[1]))
-                .orElse(null);
+        return findTopProducts(MovementType.EXIT, null, null, false, 1).stream().findFirst().orElse(null);
+    }
+
+    public Map<String, TopMovementProductDTO> getTopMovementProductsSummary() {
+        Map<String, TopMovementProductDTO> summary = new LinkedHashMap<>();
+        summary.put("topEntryProduct", getTopEntryProduct());
+        summary.put("topExitProduct", getTopExitProduct());
+        return summary;
     }
 
-    private List<Product> getVisibleProducts() {
-        User currentUser = userService.getAuthenticatedUser();
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getAllowedCategories().isEmpty()) {
-            return productRepository.findAll();
+    /**
+     * Top products by movement count or quantity, read from hourly/daily rollups. The window is either
+     * {@code from}/{@code to} or a relative {@code window} such as 24h or 7d ending at the current hour;
+     * bounds are widened to whole hours.
+     */
+    public List<TopMovementProductDTO> getTopMovementProducts(MovementType type, String window, LocalDateTime from,
+                                                              LocalDateTime to, String metric, int limit) {
+        if (!"count".equalsIgnoreCase(metric) && !"quantity".equalsIgnoreCase(metric)) {
+            throw new InvalidRequestException("Unsupported metric: " + metric);
+        }
+        LocalDateTime end = to != null ? ceilToHour(to) : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start;
+        if (from != null) {
+            start = from.truncatedTo(ChronoUnit.HOURS);
         } else {
-            return productRepository.findByCategoryIn(currentUser.getAllowedCategories());
+            Matcher matcher = WINDOW_PATTERN.matcher(window == null ? "" : window.trim().toLowerCase());
+            if (!matcher.matches()) {
+                throw new InvalidRequestException("Window must look like 24h or 7d: " + window);
+            }
+            long amount = Long.parseLong(matcher.group(1));
+            start = end.minus(amount, "h".equals(matcher.group(2)) ? ChronoUnit.HOURS : ChronoUnit.DAYS);
         }
+        if (!start.isBefore(end)) {
+            throw new InvalidRequestException("Window start must be before its end.");
+        }
+        return findTopProducts(type, start, end, "quantity".equalsIgnoreCase(metric), Math.max(1, Math.min(limit, MAX_TOP_LIMIT)));
+    }
+
+    private List<TopMovementProductDTO> findTopProducts(MovementType type, LocalDateTime from, LocalDateTime to,
+                                                        boolean byQuantity, int limit) {
+        Collection<Long> scope = visibleCategoryIds(userService.getAuthenticatedUser());
+        return reportCacheService.get(ReportType.TOP_MOVEMENTS, scope,
+                () -> movementRollupService.findTopProducts(type, from, to, scope, byQuantity, limit),
+                type, from, to, byQuantity, limit);
+    }
+
+    private static LocalDateTime ceilToHour(LocalDateTime dateTime) {
+        LocalDateTime floor = dateTime.truncatedTo(ChronoUnit.HOURS);
+        return floor.equals(dateTime) ? floor : floor.plusHours(1);
+    }
+
+    // Null when the user sees every category.
+    private static Collection<Long> visibleCategoryIds(UserPrincipal currentUser) {
+        return currentUser.canAccessAllCategories() ? null : currentUser.getAllowedCategoryIds();
+    }
+
+    private List<Product> findProducts(Collection<Long> categoryIds) {
+        return categoryIds == null ? productRepository.findAll() : productRepository.findByCategoryIdIn(categoryIds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package br.inventory.control.api.service;
+
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Splits a snapshot stream into its header line and the COPY text sections that follow, each ended
+ * by a {@code \.} line. Section bytes are handed to COPY in runs of whole lines straight from the
+ * read buffer.
+ */
+class SnapshotSectionReader {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[256 * 1024];
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    private int position;
+    private int limit;
+
+    SnapshotSectionReader(InputStream in) {
+        this.in = in;
+    }
+
+    String readLine() throws IOException {
+        partialLine.reset();
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new EOFException("Snapshot ended unexpectedly");
+            }
+            int newline = indexOfNewline();
+            if (newline < 0) {
+                partialLine.write(buffer, position, limit - position);
+                position = limit;
+            } else {
+                partialLine.write(buffer, position, newline - position);
+                position = newline + 1;
+                return partialLine.toString(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Writes the next section to {@code copyIn}, up to and excluding its end marker.
+     */
+    void copySection(CopyIn copyIn) throws IOException, SQLException {
+        partialLine.reset();
+        while (true) {
+            if (position == limit && !fill()) {
+                throw new EOFException("Snapshot ended inside a table section");
+            }
+            int runStart = position;
+            while (true) {
+                int newline = indexOfNewline();
+                if (newline < 0) {
+                    write(copyIn, runStart, position);
+                    partialLine.write(buffer, position, limit - position);
+                    position = limit;
+                    break;
+                }
+                if (partialLine.size() > 0) {
+                    // The line started in the previous buffer.
+                    partialLine.write(buffer, position, newline - position);
+                    position = newline + 1;
+                    runStart = position;
+                    byte[] line = partialLine.toByteArray();
+                    partialLine.reset();
+                    if (isEndMarker(line, 0, line.length)) {
+                        return;
+                    }
+                    copyIn.writeToCopy(line, 0, line.length);
+                    copyIn.writeToCopy(NEWLINE, 0, 1);
+                    continue;
+                }
+                if (isEndMarker(buffer, position, newline - position)) {
+                    write(copyIn, runStart, position);
+                    position = newline + 1;
+                    return;
+                }
+                position = newline + 1;
+            }
+        }
+    }
+
+    private void write(CopyIn copyIn, int from, int to) throws SQLException {
+        if (to > from) {
+            copyIn.writeToCopy(buffer, from, to - from);
+        }
+    }
+
+    private int indexOfNewline() {
+        for (int i = position; i < limit; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private static boolean isEndMarker(byte[] bytes, int offset, int length) {
+        return length == 2 && bytes[offset] == '\\' && bytes[offset + 1] == '.';
+    }
+}
@@ -0,0 +1,196 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Delivers server-sent event feeds without letting one client hold up the others. Every subscriber
+ * has a bounded queue that a small shared pool drains, one send at a time per subscriber, so a slow
+ * connection only delays its own events. When a queue fills up its pending events are dropped and
+ * replaced by the feed's reset event, telling the client to reload instead of waiting for the backlog.
+ * Idle subscribers of every feed get a comment now and then, which surfaces dead connections and keeps
+ * proxies from closing quiet ones.
+ */
+@Component
+public class SseBroadcaster {
+
+    // Sends per turn before a subscriber goes back to the end of the pool's queue.
+    private static final int SENDS_PER_TURN = 64;
+    private static final Set<DataWithMediaType> PING = SseEmitter.event().comment("ping").build();
+
+    @Value("${inventory.sse.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${inventory.sse.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final Set<Feed> feeds = ConcurrentHashMap.newKeySet();
+    private ExecutorService sendPool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sendPool = Executors.newFixedThreadPool(sendThreads, runnable -> new Thread(runnable, "sse-send-" + threadNumber.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendPool.shutdownNow();
+    }
+
+    /**
+     * @param resetEvent sent in place of the events dropped when a subscriber falls too far behind
+     */
+    public Feed feed(Supplier<SseEmitter.SseEventBuilder> resetEvent) {
+        Feed feed = new Feed(resetEvent);
+        feeds.add(feed);
+        return feed;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.sse.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Feed feed : feeds) {
+            feed.subscribers.values().forEach(this::ping);
+        }
+    }
+
+    public final class Feed {
+
+        private final Supplier<SseEmitter.SseEventBuilder> resetEvent;
+        private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+        private Feed(Supplier<SseEmitter.SseEventBuilder> resetEvent) {
+            this.resetEvent = resetEvent;
+        }
+
+        public Subscriber subscribe(SseEmitter emitter, UserPrincipal user) {
+            Subscriber subscriber = new Subscriber(this, emitter, user);
+            emitter.onCompletion(() -> subscribers.remove(emitter));
+            emitter.onTimeout(() -> subscribers.remove(emitter));
+            emitter.onError(error -> subscribers.remove(emitter));
+            subscribers.put(emitter, subscriber);
+            return subscriber;
+        }
+
+        /**
+         * Queues {@code event} for every subscriber allowed to see {@code categoryId}. Events queued
+         * from one thread, or under one lock, reach each subscriber in that order.
+         */
+        public void broadcast(Long categoryId, SseEmitter.SseEventBuilder event) {
+            Set<DataWithMediaType> items = null;
+            for (Subscriber subscriber : subscribers.values()) {
+                if (subscriber.user.canAccessCategory(categoryId)) {
+                    if (items == null) {
+                        items = event.build();
+                    }
+                    enqueue(subscriber, items);
+                }
+            }
+        }
+
+        public void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+            enqueue(subscriber, event.build());
+        }
+    }
+
+    public static final class Subscriber {
+
+        private final Feed feed;
+        private final SseEmitter emitter;
+        private final UserPrincipal user;
+
+        // Guarded by this.
+        private final Queue<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(Feed feed, SseEmitter emitter, UserPrincipal user) {
+            this.feed = feed;
+            this.emitter = emitter;
+            this.user = user;
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> items) {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (subscriber.queue.size() >= queueCapacity) {
+                subscriber.queue.clear();
+                subscriber.queue.add(subscriber.feed.resetEvent.get().build());
+            } else {
+                subscriber.queue.add(items);
+            }
+            if (subscriber.draining) {
+                return;
+            }
+            subscriber.draining = true;
+        }
+        sendPool.execute(() -> drain(subscriber));
+    }
+
+    // Only when nothing is queued or being sent: a busy connection is evidently alive.
+    private void ping(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.closed || subscriber.draining) {
+                return;
+            }
+            subscriber.queue.add(PING);
+            subscriber.draining = true;
+        }
+        sendPool.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        for (int sent = 0; ; sent++) {
+            Set<DataWithMediaType> items;
+            synchronized (subscriber) {
+                if (sent == SENDS_PER_TURN) {
+                    break;
+                }
+                items = subscriber.queue.poll();
+                if (items == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+            }
+            try {
+                subscriber.emitter.send(items);
+            } catch (IOException | IllegalStateException e) {
+                close(subscriber);
+                return;
+            }
+        }
+        sendPool.execute(() -> drain(subscriber));
+    }
+
+    private void close(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.closed = true;
+            subscriber.queue.clear();
+        }
+        subscriber.feed.subscribers.remove(subscriber.emitter);
+    }
+}
@@ -0,0 +1,152 @@
+package br.inventory.control.api.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of {@code stock_movements} (the table itself is partitioned by the
+ * V2 migration): partitions are created {@code months-ahead} in advance and, when a retention is
+ * configured, partitions older than it are dropped or detached. A detached partition is renamed to
+ * {@code stock_movements_archived_yyyyMM} and loses its foreign key to {@code products}, so products
+ * can still be deleted and the month can be partitioned again. Movement rollups are kept, so
+ * windowed reports outlive the raw history.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class StockMovementPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementPartitionService.class);
+
+    static final String TABLE = "stock_movements";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String ARCHIVE_PREFIX = TABLE + "_archived_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.movements.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${inventory.movements.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${inventory.movements.retention.drop:false}")
+    private boolean dropExpired;
+
+    @PostConstruct
+    void init() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${inventory.movements.partitions.maintenance-cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            applyRetention(current.minusMonths(retentionMonths));
+        }
+    }
+
+    /**
+     * Creates the partitions covering [{@code from}, {@code to}], for writers that insert movements
+     * outside the months maintained ahead of time.
+     */
+    public synchronized void ensurePartitions(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+    }
+
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid"
+                        + " WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = ?::regclass ORDER BY c.relname", String.class, TABLE);
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        // Left behind by a detach that did not finish archiving; IF NOT EXISTS would otherwise skip the month.
+        if (isDetached(partition)) {
+            archive(partition, month);
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void applyRetention(YearMonth oldestKept) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : listPartitions()) {
+            if (partition.startsWith(PARTITION_PREFIX)
+                    && YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX).isBefore(oldestKept)) {
+                expired.add(partition);
+            }
+        }
+        for (String partition : expired) {
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("Dropped expired stock movement partition {}", partition);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+                logger.info("Detached expired stock movement partition {} as {}", partition, archive(partition, month));
+            }
+        }
+    }
+
+    private boolean isDetached(String table) {
+        Boolean detached = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = ? AND relkind = 'r' AND NOT relispartition"
+                        + " AND pg_table_is_visible(oid))", Boolean.class, table);
+        return Boolean.TRUE.equals(detached);
+    }
+
+    // Detaching keeps the inherited foreign key to products, which would block deleting or truncating them.
+    private String archive(String table, YearMonth month) {
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'", String.class, table);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT \"" + foreignKey + "\"");
+        }
+        String archived = archiveName(month);
+        for (int attempt = 2; tableExists(archived); attempt++) {
+            archived = archiveName(month) + "_" + attempt;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + archived);
+        return archived;
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    static String archiveName(YearMonth month) {
+        return ARCHIVE_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
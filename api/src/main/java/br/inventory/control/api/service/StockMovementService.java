@@ -1,7 +1,15 @@
 package br.inventory.control.api.service;
 
+import br.inventory.control.api.config.metrics.StockMovementMetrics;
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.ProductStockLevelDTO;
+import br.inventory.control.api.dto.StockMovementBatchLineResultDTO;
+import br.inventory.control.api.dto.StockMovementBatchResponseDTO;
 import br.inventory.control.api.dto.StockMovementDTO;
 import br.inventory.control.api.dto.StockMovementResponseDTO;
+import br.inventory.control.api.event.OutboxEventType;
+import br.inventory.control.api.event.StockLevelChangedEvent;
+import br.inventory.control.api.event.StockMovementRecordedPayload;
 import br.inventory.control.api.exception.InsufficientStockException;
 import br.inventory.control.api.exception.ResourceNotFoundException;
 import br.inventory.control.api.model.MovementType;
@@ -10,10 +18,21 @@ import br.inventory.control.api.model.StockMovement;
 import br.inventory.control.api.repository.ProductRepository;
 import br.inventory.control.api.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,66 +41,267 @@ public class StockMovementService {
     private final StockMovementRepository stockMovementRepository;
     private final ProductRepository productRepository;
     private final ProductService productService; // Para reutilizar a lógica de permissão
+    private final UserService userService;
+    private final HotStockService hotStockService;
+    private final MovementRollupService movementRollupService;
+    private final ReportCacheService reportCacheService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockMovementMetrics movementMetrics;
 
     @Transactional
     public StockMovementResponseDTO registerEntry(StockMovementDTO movementDTO) {
-        Product product = findAndCheckProductPermission(movementDTO.getProductId());
+        if (hotStockService.isHot(movementDTO.getProductId())) {
+            return registerHotMovement(movementDTO, MovementType.ENTRY);
+        }
+        ProductStockLevelDTO stock = productRepository.addStock(movementDTO.getProductId(), movementDTO.getQuantity())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + movementDTO.getProductId()));
+        productService.checkPermission(stock.getCategoryId());
 
-        product.setQuantityInStock(product.getQuantityInStock() + movementDTO.getQuantity());
+        StockMovement movement = saveMovement(stock.getProductId(), movementDTO.getQuantity(), MovementType.ENTRY);
+        appendOutbox(movement, stock.getCategoryId(), stock.getQuantityInStock());
+        invalidateReports(List.of(stock.getCategoryId()));
+        eventPublisher.publishEvent(StockLevelChangedEvent.afterMovement(stock, movementDTO.getQuantity()));
+        movementMetrics.recorded(MovementType.ENTRY);
 
-        String warning = null;
-        if (product.getQuantityInStock() > product.getMaxStockQuantity()) {
-            warning = "Warning: Stock quantity is now above the maximum defined level.";
+        return toResponseDTO(movement, stock, stockWarning(stock, MovementType.ENTRY));
+    }
+
+    @Transactional
+    public StockMovementResponseDTO registerExit(StockMovementDTO movementDTO) {
+        if (hotStockService.isHot(movementDTO.getProductId())) {
+            return registerHotMovement(movementDTO, MovementType.EXIT);
         }
+        ProductStockLevelDTO stock = productRepository.removeStockIfAvailable(movementDTO.getProductId(), movementDTO.getQuantity())
+                .orElseThrow(() -> insufficientStock(movementDTO.getProductId()));
+        productService.checkPermission(stock.getCategoryId());
 
-        productRepository.save(product);
-        StockMovement movement = saveMovement(product, movementDTO.getQuantity(), MovementType.ENTRY);
+        StockMovement movement = saveMovement(stock.getProductId(), movementDTO.getQuantity(), MovementType.EXIT);
+        appendOutbox(movement, stock.getCategoryId(), stock.getQuantityInStock());
+        invalidateReports(List.of(stock.getCategoryId()));
+        eventPublisher.publishEvent(StockLevelChangedEvent.afterMovement(stock, -movementDTO.getQuantity()));
+        movementMetrics.recorded(MovementType.EXIT);
 
-        return toResponseDTO(movement, warning);
+        return toResponseDTO(movement, stock, stockWarning(stock, MovementType.EXIT));
     }
 
     @Transactional
-    public StockMovementResponseDTO registerExit(StockMovementDTO movementDTO) {
-        Product product = findAndCheckProductPermission(movementDTO.getProductId());
+    public StockMovementBatchResponseDTO registerBatch(List<StockMovementDTO> movementDTOs) {
+        UserPrincipal currentUser = userService.getAuthenticatedUser();
+
+        TreeSet<Long> productIds = movementDTOs.stream()
+                .map(StockMovementDTO::getProductId)
+                .filter(Objects::nonNull)
+                .filter(productId -> !hotStockService.isHot(productId))
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Product> products = productIds.isEmpty() ? Map.of() :
+                productRepository.findAllByIdForUpdate(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = new ArrayList<>();
+        List<Integer> quantitiesInStock = new ArrayList<>();
+        List<StockMovementBatchLineResultDTO> results = new ArrayList<>(movementDTOs.size());
+        Map<Long, Integer> initialQuantities = new HashMap<>();
+
+        for (int i = 0; i < movementDTOs.size(); i++) {
+            StockMovementDTO movementDTO = movementDTOs.get(i);
+            StockMovementBatchLineResultDTO.StockMovementBatchLineResultDTOBuilder result = StockMovementBatchLineResultDTO.builder()
+                    .line(i)
+                    .productId(movementDTO.getProductId())
+                    .type(movementDTO.getType())
+                    .quantity(movementDTO.getQuantity());
+            StockMovementBatchLineResultDTO line = applyBatchLine(movementDTO, products, currentUser, now, movements, quantitiesInStock,
+                    initialQuantities, result);
+            if (line.getStatus() == StockMovementBatchLineResultDTO.Status.APPLIED) {
+                movementMetrics.recorded(line.getType());
+            } else if (line.getStatus() == StockMovementBatchLineResultDTO.Status.INSUFFICIENT_STOCK) {
+                movementMetrics.insufficientStock(line.getType());
+            }
+            results.add(line);
+        }
 
-        if (product.getQuantityInStock() < movementDTO.getQuantity()) {
-            throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+        stockMovementRepository.insertAll(movements);
+        movementRollupService.record(movements);
+        // After the insert, which assigns the movement ids the events carry.
+        for (int i = 0; i < movements.size(); i++) {
+            StockMovement movement = movements.get(i);
+            appendOutbox(movement, movement.getProduct().getCategory().getId(), quantitiesInStock.get(i));
         }
+        if (!initialQuantities.isEmpty()) {
+            invalidateReports(initialQuantities.keySet().stream()
+                    .map(productId -> products.get(productId).getCategory().getId())
+                    .collect(Collectors.toSet()));
+        }
+        initialQuantities.forEach((productId, initialQuantity) -> {
+            Product product = products.get(productId);
+            eventPublisher.publishEvent(StockLevelChangedEvent.of(ProductStockLevelDTO.from(product), initialQuantity,
+                    initialQuantity < product.getMinStockQuantity()));
+        });
+
+        int applied = movements.size();
+        return new StockMovementBatchResponseDTO(applied, results.size() - applied, results);
+    }
 
-        product.setQuantityInStock(product.getQuantityInStock() - movementDTO.getQuantity());
+    private StockMovementBatchLineResultDTO applyBatchLine(StockMovementDTO movementDTO, Map<Long, Product> products,
+                                                           UserPrincipal currentUser, LocalDateTime now, List<StockMovement> movements,
+                                                           List<Integer> quantitiesInStock, Map<Long, Integer> initialQuantities,
+                                                           StockMovementBatchLineResultDTO.StockMovementBatchLineResultDTOBuilder result) {
+        if (movementDTO.getType() == null || movementDTO.getQuantity() <= 0) {
+            return result.status(StockMovementBatchLineResultDTO.Status.INVALID)
+                    .message("Movement type is required and quantity must be positive.")
+                    .build();
+        }
+
+        if (hotStockService.isHot(movementDTO.getProductId())) {
+            return applyHotBatchLine(movementDTO, currentUser, now, result);
+        }
+
+        Product product = products.get(movementDTO.getProductId());
+        if (product == null) {
+            return result.status(StockMovementBatchLineResultDTO.Status.PRODUCT_NOT_FOUND)
+                    .message("Product not found with id: " + movementDTO.getProductId())
+                    .build();
+        }
+        if (!productService.hasPermission(currentUser, product.getCategory().getId())) {
+            return result.status(StockMovementBatchLineResultDTO.Status.FORBIDDEN_CATEGORY)
+                    .message("User not permitted to manage products in this category.")
+                    .build();
+        }
 
         String warning = null;
-        if (product.getQuantityInStock() < product.getMinStockQuantity()) {
-            warning = "Warning: Stock quantity is now below the minimum defined level.";
+        int quantityBefore = product.getQuantityInStock();
+        if (movementDTO.getType() == MovementType.ENTRY) {
+            product.setQuantityInStock(product.getQuantityInStock() + movementDTO.getQuantity());
+            if (product.getQuantityInStock() > product.getMaxStockQuantity()) {
+                warning = "Warning: Stock quantity is now above the maximum defined level.";
+            }
+        } else {
+            if (product.getQuantityInStock() < movementDTO.getQuantity()) {
+                return result.status(StockMovementBatchLineResultDTO.Status.INSUFFICIENT_STOCK)
+                        .quantityInStock(product.getQuantityInStock())
+                        .message("Insufficient stock for product: " + product.getName())
+                        .build();
+            }
+            product.setQuantityInStock(product.getQuantityInStock() - movementDTO.getQuantity());
+            if (product.getQuantityInStock() < product.getMinStockQuantity()) {
+                warning = "Warning: Stock quantity is now below the minimum defined level.";
+            }
+        }
+
+        product.refreshBelowMinStock();
+        initialQuantities.putIfAbsent(product.getId(), quantityBefore);
+
+        StockMovement movement = new StockMovement();
+        movement.setProduct(product);
+        movement.setQuantity(movementDTO.getQuantity());
+        movement.setType(movementDTO.getType());
+        movement.setMovementDate(now);
+        movements.add(movement);
+        quantitiesInStock.add(product.getQuantityInStock());
+
+        return result.status(StockMovementBatchLineResultDTO.Status.APPLIED)
+                .quantityInStock(product.getQuantityInStock())
+                .message(warning)
+                .build();
+    }
+
+    // Hot SKU movements are accepted in memory and persisted later, so the response has no movement id yet.
+    private StockMovementResponseDTO registerHotMovement(StockMovementDTO movementDTO, MovementType type) {
+        ProductStockLevelDTO current = hotStockService.getStockLevel(movementDTO.getProductId());
+        productService.checkPermission(current.getCategoryId());
+
+        LocalDateTime movementDate = LocalDateTime.now();
+        ProductStockLevelDTO stock = hotStockService.register(movementDTO.getProductId(), type, movementDTO.getQuantity(), movementDate)
+                .orElseThrow(() -> {
+                    movementMetrics.insufficientStock(type);
+                    return new InsufficientStockException("Insufficient stock for product: " + current.getProductName());
+                });
+        eventPublisher.publishEvent(StockLevelChangedEvent.afterMovement(stock, signedQuantity(type, movementDTO.getQuantity())));
+        movementMetrics.recorded(type);
+
+        return StockMovementResponseDTO.builder()
+                .productId(stock.getProductId())
+                .productName(stock.getProductName())
+                .movementDate(movementDate)
+                .quantity(movementDTO.getQuantity())
+                .type(type)
+                .warning(stockWarning(stock, type))
+                .build();
+    }
+
+    private StockMovementBatchLineResultDTO applyHotBatchLine(StockMovementDTO movementDTO, UserPrincipal currentUser, LocalDateTime now,
+                                                              StockMovementBatchLineResultDTO.StockMovementBatchLineResultDTOBuilder result) {
+        ProductStockLevelDTO current = hotStockService.getStockLevel(movementDTO.getProductId());
+        if (!productService.hasPermission(currentUser, current.getCategoryId())) {
+            return result.status(StockMovementBatchLineResultDTO.Status.FORBIDDEN_CATEGORY)
+                    .message("User not permitted to manage products in this category.")
+                    .build();
         }
+        return hotStockService.register(movementDTO.getProductId(), movementDTO.getType(), movementDTO.getQuantity(), now)
+                .map(stock -> {
+                    eventPublisher.publishEvent(StockLevelChangedEvent.afterMovement(stock,
+                            signedQuantity(movementDTO.getType(), movementDTO.getQuantity())));
+                    return result.status(StockMovementBatchLineResultDTO.Status.APPLIED)
+                            .quantityInStock(stock.getQuantityInStock())
+                            .message(stockWarning(stock, movementDTO.getType()))
+                            .build();
+                })
+                .orElseGet(() -> result.status(StockMovementBatchLineResultDTO.Status.INSUFFICIENT_STOCK)
+                        .quantityInStock(current.getQuantityInStock())
+                        .message("Insufficient stock for product: " + current.getProductName())
+                        .build());
+    }
 
-        productRepository.save(product);
-        StockMovement movement = saveMovement(product, movementDTO.getQuantity(), MovementType.EXIT);
+    private void appendOutbox(StockMovement movement, Long categoryId, int quantityInStock) {
+        Long productId = movement.getProduct().getId();
+        outboxService.append(OutboxEventType.STOCK_MOVEMENT_RECORDED, productId, new StockMovementRecordedPayload(movement.getId(),
+                productId, categoryId, movement.getType(), movement.getQuantity(), movement.getMovementDate(), quantityInStock));
+    }
+
+    // Hot SKU movements reach the tables, and the reports, when HotStockService flushes them.
+    private void invalidateReports(Collection<Long> categoryIds) {
+        reportCacheService.invalidate(EnumSet.of(ReportCacheService.Change.STOCK, ReportCacheService.Change.MOVEMENTS), categoryIds);
+    }
 
-        return toResponseDTO(movement, warning);
+    private static int signedQuantity(MovementType type, int quantity) {
+        return type == MovementType.ENTRY ? quantity : -quantity;
     }
 
-    private Product findAndCheckProductPermission(Long productId) {
+    private String stockWarning(ProductStockLevelDTO stock, MovementType type) {
+        if (type == MovementType.ENTRY && stock.getQuantityInStock() > stock.getMaxStockQuantity()) {
+            return "Warning: Stock quantity is now above the maximum defined level.";
+        }
+        if (type == MovementType.EXIT && stock.getQuantityInStock() < stock.getMinStockQuantity()) {
+            return "Warning: Stock quantity is now below the minimum defined level.";
+        }
+        return null;
+    }
+
+    private RuntimeException insufficientStock(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
         productService.checkPermission(product.getCategory());
-        return product;
+        movementMetrics.insufficientStock(MovementType.EXIT);
+        return new InsufficientStockException("Insufficient stock for product: " + product.getName());
     }
 
-    private StockMovement saveMovement(Product product, int quantity, MovementType type) {
+    private StockMovement saveMovement(Long productId, int quantity, MovementType type) {
         StockMovement movement = new StockMovement();
-        movement.setProduct(product);
+        movement.setProduct(productRepository.getReferenceById(productId));
         movement.setQuantity(quantity);
         movement.setType(type);
         movement.setMovementDate(LocalDateTime.now());
-        return stockMovementRepository.save(movement);
+        StockMovement saved = stockMovementRepository.save(movement);
+        movementRollupService.record(List.of(saved));
+        return saved;
     }
 
-    private StockMovementResponseDTO toResponseDTO(StockMovement movement, String warning) {
+    private StockMovementResponseDTO toResponseDTO(StockMovement movement, ProductStockLevelDTO stock, String warning) {
         return StockMovementResponseDTO.builder()
                 .id(movement.getId())
-                .productId(movement.getProduct().getId())
-                .productName(movement.getProduct().getName())
+                .productId(stock.getProductId())
+                .productName(stock.getProductName())
                 .movementDate(movement.getMovementDate())
                 .quantity(movement.getQuantity())
                 .type(movement.getType())
@@ -0,0 +1,74 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+import br.inventory.control.api.repository.StockBalanceSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records closing stock balances at every {@code interval} boundary (hour or day) and answers
+ * point-in-time balance queries from the nearest earlier snapshot plus the movements after it.
+ * <p>
+ * A boundary is snapshotted {@code settle-minutes} after it passes, so movements journaled by the hot
+ * SKU mode with earlier timestamps have reached the database. Quantities changed by editing a
+ * product are not movements: as-of balances between such an edit and the next snapshot do not
+ * reflect it.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockSnapshotService.class);
+    private static final Set<ChronoUnit> SUPPORTED_INTERVALS = Set.of(ChronoUnit.HOURS, ChronoUnit.DAYS);
+
+    private final StockBalanceSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.stock-snapshots.interval:DAYS}")
+    private ChronoUnit interval;
+
+    @Value("${inventory.stock-snapshots.settle-minutes:5}")
+    private long settleMinutes;
+
+    @PostConstruct
+    void validate() {
+        if (!SUPPORTED_INTERVALS.contains(interval)) {
+            throw new IllegalStateException("inventory.stock-snapshots.interval must be HOURS or DAYS, got " + interval);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-snapshots.check-interval-ms:300000}")
+    public void snapshotIfDue() {
+        LocalDateTime boundary = LocalDateTime.now().minusMinutes(settleMinutes).truncatedTo(interval);
+        if (snapshotRepository.findLatestSnapshotAt(boundary).filter(boundary::equals).isPresent()) {
+            return;
+        }
+        Integer written = transactionTemplate.execute(status -> snapshotRepository.takeSnapshot(boundary));
+        if (written != null && written > 0) {
+            logger.info("Recorded stock balance snapshot at {} for {} products", boundary, written);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockBalanceItemDTO> getBalancesAsOf(LocalDateTime asOf, Long productId, Collection<Long> categoryIds) {
+        LocalDateTime snapshotAt = snapshotRepository.findLatestSnapshotAt(asOf).orElse(null);
+        return snapshotRepository.findBalancesAsOf(asOf, snapshotAt, productId, categoryIds);
+    }
+
+    public void deleteForProduct(Long productId) {
+        snapshotRepository.deleteByProductId(productId);
+    }
+}
@@ -0,0 +1,132 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.StockDeltaDTO;
+import br.inventory.control.api.event.StockLevelChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes a compact delta to every subscriber allowed to see the product once a stock change commits.
+ * Connections are async servlet requests, so idle subscribers hold no thread; deltas go out through
+ * {@link SseBroadcaster}, in order for each subscriber. The last {@code buffer-size} deltas are kept
+ * in a ring buffer so a client reconnecting with {@code Last-Event-ID} receives what it missed, or a
+ * {@code reset} event when that is no longer available, or it fell behind, and it has to reload.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockStreamService {
+
+    private static final String DELTA_EVENT = "stock";
+    private static final String READY_EVENT = "ready";
+    private static final String RESET_EVENT = "reset";
+
+    private final SseBroadcaster broadcaster;
+
+    @Value("${inventory.stock-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${inventory.stock-stream.buffer-size:10000}")
+    private int bufferSize;
+
+    // Event ids are "<epoch>-<sequence>"; ids handed out by a previous process never match the epoch.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private SseBroadcaster.Feed feed;
+
+    // Guarded by this.
+    private BufferedDelta[] buffer;
+    private long nextSequence = 1;
+
+    private record BufferedDelta(long sequence, StockDeltaDTO delta) {
+    }
+
+    @PostConstruct
+    void init() {
+        buffer = new BufferedDelta[bufferSize];
+        // A reset carries the latest id, so the client resumes after the state it reloads.
+        feed = broadcaster.feed(() -> {
+            synchronized (this) {
+                return SseEmitter.event().id(eventId(nextSequence - 1)).name(RESET_EVENT).data("");
+            }
+        });
+    }
+
+    public SseEmitter subscribe(UserPrincipal user, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        long resumeAfter = parseSequence(lastEventId);
+        // Under the lock, so the replay is queued before any delta committed after it.
+        synchronized (this) {
+            long lastSequence = nextSequence - 1;
+            List<BufferedDelta> missed = null;
+            if (resumeAfter >= 0 && resumeAfter <= lastSequence && resumeAfter >= lastSequence - bufferSize) {
+                missed = new ArrayList<>();
+                for (long sequence = resumeAfter + 1; sequence <= lastSequence; sequence++) {
+                    BufferedDelta buffered = buffer[(int) (sequence % bufferSize)];
+                    if (user.canAccessCategory(buffered.delta().getCategoryId())) {
+                        missed.add(buffered);
+                    }
+                }
+            }
+
+            SseBroadcaster.Subscriber subscriber = feed.subscribe(emitter, user);
+            // A replay the subscriber's queue cannot hold would only overflow into a reset.
+            if (missed != null && missed.size() < broadcaster.getQueueCapacity()) {
+                missed.forEach(buffered -> feed.send(subscriber, deltaEvent(buffered)));
+            } else {
+                feed.send(subscriber, SseEmitter.event().id(eventId(lastSequence)).name(lastEventId == null ? READY_EVENT : RESET_EVENT).data(""));
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        StockDeltaDTO delta = new StockDeltaDTO(event.productId(), event.categoryId(), event.quantityInStock(), crossing(event));
+        synchronized (this) {
+            BufferedDelta buffered = new BufferedDelta(nextSequence++, delta);
+            buffer[(int) (buffered.sequence() % bufferSize)] = buffered;
+            // Queued under the lock so deltas reach every subscriber in sequence order.
+            feed.broadcast(delta.getCategoryId(), deltaEvent(buffered));
+        }
+    }
+
+    private SseEmitter.SseEventBuilder deltaEvent(BufferedDelta buffered) {
+        return SseEmitter.event().id(eventId(buffered.sequence())).name(DELTA_EVENT).data(buffered.delta());
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // -1 when the id is missing, malformed or from another process.
+    private long parseSequence(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static StockDeltaDTO.Crossing crossing(StockLevelChangedEvent event) {
+        if (event.crossedBelowMin()) {
+            return StockDeltaDTO.Crossing.BELOW_MIN;
+        }
+        if (event.recovered()) {
+            return StockDeltaDTO.Crossing.RECOVERED;
+        }
+        if (event.previousQuantity() <= event.maxStockQuantity() && event.quantityInStock() > event.maxStockQuantity()) {
+            return StockDeltaDTO.Crossing.ABOVE_MAX;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+package br.inventory.control.api.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative stock counter split across stripes so concurrent movements on the same product
+ * rarely touch the same cache line. Entries and exits that fit in the caller's stripe are a
+ * single CAS; an exit larger than its stripe gathers units from the others under a lock.
+ */
+class StripedStockCounter {
+
+    // One long per 64-byte line to avoid false sharing between stripes.
+    private static final int PADDING = 8;
+
+    private final int stripeCount;
+    private final AtomicLongArray cells;
+
+    StripedStockCounter(int stripeCount, long initialQuantity) {
+        this.stripeCount = stripeCount;
+        this.cells = new AtomicLongArray(stripeCount * PADDING);
+        cells.set(0, initialQuantity);
+    }
+
+    void add(long quantity) {
+        cells.getAndAdd(slot(homeStripe()), quantity);
+    }
+
+    boolean tryRemove(long quantity) {
+        int home = homeStripe();
+        int slot = slot(home);
+        long available = cells.get(slot);
+        while (available >= quantity) {
+            if (cells.compareAndSet(slot, available, available - quantity)) {
+                return true;
+            }
+            available = cells.get(slot);
+        }
+        return gather(home, quantity);
+    }
+
+    long sum() {
+        long total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            total += cells.get(slot(i));
+        }
+        return total;
+    }
+
+    private synchronized boolean gather(int home, long quantity) {
+        long gathered = 0;
+        boolean progress = true;
+        while (gathered < quantity && progress) {
+            progress = false;
+            for (int i = 0; i < stripeCount && gathered < quantity; i++) {
+                int slot = slot(i);
+                long available = cells.get(slot);
+                while (available > 0) {
+                    long take = Math.min(available, quantity - gathered);
+                    if (cells.compareAndSet(slot, available, available - take)) {
+                        gathered += take;
+                        progress = true;
+                        break;
+                    }
+                    available = cells.get(slot);
+                }
+            }
+        }
+        if (gathered < quantity) {
+            cells.getAndAdd(slot(home), gathered);
+            return false;
+        }
+        return true;
+    }
+
+    private int homeStripe() {
+        return ThreadLocalRandom.current().nextInt(stripeCount);
+    }
+
+    private int slot(int stripe) {
+        return stripe * PADDING;
+    }
+}
@@ -1,5 +1,8 @@
 package br.inventory.control.api.service;
 
+import br.inventory.control.api.config.security.PermissionsVersionRegistry;
+import br.inventory.control.api.config.security.PrincipalCache;
+import br.inventory.control.api.config.security.UserPrincipal;
 import br.inventory.control.api.dto.UserDTO;
 import br.inventory.control.api.exception.ResourceNotFoundException;
 import br.inventory.control.api.model.Category;
@@ -10,9 +13,12 @@ import br.inventory.control.api.repository.RefreshTokenRepository;
 import br.inventory.control.api.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashSet;
 import java.util.List;
@@ -27,6 +33,8 @@ public class UserService {
     private final CategoryRepository categoryRepository;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final PrincipalCache principalCache;
+    private final PermissionsVersionRegistry permissionsVersionRegistry;
 
     public UserDTO createUser(UserDTO userDTO) {
         User user = new User();
@@ -41,6 +49,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        afterCommit(() -> principalCache.invalidate(savedUser.getEmail()));
         return toDTO(savedUser);
     }
 
@@ -55,12 +64,46 @@ public class UserService {
 
         refreshTokenRepository.deleteByUser(user);
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            principalCache.invalidate(user.getEmail());
+            permissionsVersionRegistry.revoke(user.getId());
+        });
     }
 
-    public User getAuthenticatedUser() {
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found"));
+    @Transactional
+    public void invalidatePermissionsForCategory(Long categoryId) {
+        for (User user : userRepository.findByAllowedCategoriesId(categoryId)) {
+            long version = (user.getPermissionsVersion() == null ? 0L : user.getPermissionsVersion()) + 1;
+            user.setPermissionsVersion(version);
+            userRepository.save(user);
+            afterCommit(() -> {
+                permissionsVersionRegistry.register(user.getId(), version);
+                principalCache.invalidate(user.getEmail());
+            });
+        }
+    }
+
+    public UserPrincipal getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return principalCache.get(authentication.getName());
+    }
+
+    // Evicting before commit lets a concurrent request re-cache the old row, and a rollback would leave a
+    // permissions version no committed token carries.
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     private UserDTO toDTO(User user) {
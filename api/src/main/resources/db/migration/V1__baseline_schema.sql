@@ -0,0 +1,87 @@
+-- Baseline matching the schema previously created by Hibernate (ddl-auto=update).
+-- Every statement is idempotent so databases created that way are adopted as they are.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL UNIQUE,
+    packaging varchar(255),
+    size varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email varchar(255) NOT NULL UNIQUE,
+    name varchar(255),
+    password varchar(255),
+    role varchar(255) CHECK (role IN ('ADMIN', 'EMPLOYEE'))
+);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS permissions_version bigint;
+
+CREATE TABLE IF NOT EXISTS user_categories (
+    user_id bigint NOT NULL,
+    category_id bigint NOT NULL,
+    PRIMARY KEY (category_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    unit_price numeric(38, 2),
+    unit_of_measure varchar(255),
+    quantity_in_stock integer NOT NULL,
+    min_stock_quantity integer NOT NULL,
+    max_stock_quantity integer NOT NULL,
+    category_id bigint NOT NULL
+);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS below_min_stock boolean NOT NULL DEFAULT false;
+
+CREATE TABLE IF NOT EXISTS stock_movements (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movement_date timestamp(6) NOT NULL,
+    product_id bigint NOT NULL,
+    quantity integer NOT NULL,
+    type varchar(255) CHECK (type IN ('ENTRY', 'EXIT'))
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token varchar(255) NOT NULL UNIQUE,
+    expiry_date timestamp(6) with time zone NOT NULL,
+    user_id bigint
+);
+
+CREATE TABLE IF NOT EXISTS hot_stock_checkpoints (
+    id bigint NOT NULL PRIMARY KEY,
+    last_sequence bigint NOT NULL,
+    updated_at timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS stock_movement_rollups (
+    granularity varchar(255) NOT NULL CHECK (granularity IN ('HOUR', 'DAY')),
+    bucket_start timestamp(6) NOT NULL,
+    product_id bigint NOT NULL,
+    type varchar(255) NOT NULL CHECK (type IN ('ENTRY', 'EXIT')),
+    movement_count bigint NOT NULL,
+    total_quantity bigint NOT NULL,
+    PRIMARY KEY (bucket_start, product_id, granularity, type)
+);
+
+-- Foreign keys keep the names Hibernate generated.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkog2rp4qthbtt2lfyhfo32lsw9') THEN
+        ALTER TABLE products ADD CONSTRAINT fkog2rp4qthbtt2lfyhfo32lsw9 FOREIGN KEY (category_id) REFERENCES categories;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk1lih5y2npsf8u5o3vhdb9y0os') THEN
+        ALTER TABLE refresh_tokens ADD CONSTRAINT fk1lih5y2npsf8u5o3vhdb9y0os FOREIGN KEY (user_id) REFERENCES users;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkjcaag8ogfjxpwmqypi1wfdaog') THEN
+        ALTER TABLE stock_movements ADD CONSTRAINT fkjcaag8ogfjxpwmqypi1wfdaog FOREIGN KEY (product_id) REFERENCES products;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk6r91537otve5embvcuv40is3j') THEN
+        ALTER TABLE user_categories ADD CONSTRAINT fk6r91537otve5embvcuv40is3j FOREIGN KEY (category_id) REFERENCES categories;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkdqpxght56isds8smi1frxg0xo') THEN
+        ALTER TABLE user_categories ADD CONSTRAINT fkdqpxght56isds8smi1frxg0xo FOREIGN KEY (user_id) REFERENCES users;
+    END IF;
+END $$;
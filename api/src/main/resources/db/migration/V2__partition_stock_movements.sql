@@ -0,0 +1,60 @@
+-- Range partitions stock_movements by month on movement_date. A plain table is converted in place,
+-- keeping ids; partitions for the current and upcoming months are created by
+-- StockMovementPartitionService at startup.
+DO $$
+DECLARE
+    legacy_pkey text;
+    legacy_sequence text;
+    partition_month date;
+    last_month date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'stock_movements'::regclass) THEN
+        RETURN;
+    END IF;
+    IF EXISTS (SELECT 1 FROM stock_movements WHERE movement_date IS NULL) THEN
+        RAISE EXCEPTION 'stock_movements has rows without movement_date; they cannot be partitioned';
+    END IF;
+
+    LOCK TABLE stock_movements IN ACCESS EXCLUSIVE MODE;
+    SELECT conname INTO legacy_pkey FROM pg_constraint WHERE conrelid = 'stock_movements'::regclass AND contype = 'p';
+    legacy_sequence := pg_get_serial_sequence('stock_movements', 'id');
+
+    ALTER TABLE stock_movements RENAME TO stock_movements_legacy;
+    EXECUTE format('ALTER TABLE stock_movements_legacy RENAME CONSTRAINT %I TO stock_movements_legacy_pkey', legacy_pkey);
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'stock_movements_legacy'::regclass AND conname = 'stock_movements_type_check') THEN
+        ALTER TABLE stock_movements_legacy RENAME CONSTRAINT stock_movements_type_check TO stock_movements_legacy_type_check;
+    END IF;
+    IF legacy_sequence IS NOT NULL THEN
+        EXECUTE format('ALTER SEQUENCE %s RENAME TO stock_movements_legacy_id_seq', legacy_sequence);
+    END IF;
+
+    -- The partition key has to be part of the primary key; Hibernate only relies on id being unique.
+    CREATE SEQUENCE stock_movements_id_seq;
+    CREATE TABLE stock_movements (
+        id bigint NOT NULL DEFAULT nextval('stock_movements_id_seq'),
+        movement_date timestamp(6) NOT NULL,
+        product_id bigint NOT NULL,
+        quantity integer NOT NULL,
+        type varchar(255) CONSTRAINT stock_movements_type_check CHECK (type IN ('ENTRY', 'EXIT')),
+        CONSTRAINT stock_movements_pkey PRIMARY KEY (id, movement_date)
+    ) PARTITION BY RANGE (movement_date);
+    ALTER SEQUENCE stock_movements_id_seq OWNED BY stock_movements.id;
+
+    SELECT date_trunc('month', MIN(movement_date))::date, date_trunc('month', MAX(movement_date))::date
+    INTO partition_month, last_month FROM stock_movements_legacy;
+    WHILE partition_month IS NOT NULL AND partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE stock_movements_p%s PARTITION OF stock_movements FOR VALUES FROM (%L) TO (%L)',
+                       to_char(partition_month, 'YYYYMM'), partition_month, (partition_month + interval '1 month')::date);
+        partition_month := (partition_month + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO stock_movements (id, movement_date, product_id, quantity, type)
+    SELECT id, movement_date, product_id, quantity, type FROM stock_movements_legacy;
+    PERFORM setval('stock_movements_id_seq', COALESCE((SELECT MAX(id) FROM stock_movements), 0) + 1, false);
+    DROP TABLE stock_movements_legacy;
+
+    ALTER TABLE stock_movements ADD CONSTRAINT fkjcaag8ogfjxpwmqypi1wfdaog FOREIGN KEY (product_id) REFERENCES products;
+END $$;
+
+-- Declared on the parent, so every existing and future partition gets it.
+CREATE INDEX IF NOT EXISTS brin_stock_movements_movement_date ON stock_movements USING brin (movement_date);
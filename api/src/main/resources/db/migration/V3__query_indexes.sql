@@ -0,0 +1,25 @@
+-- Indexes matching the queries in the repositories. Earlier releases created some of these from
+-- entity annotations or at startup, hence IF NOT EXISTS / IF EXISTS throughout.
+
+-- products: keyset listing by (name, id), optionally within categories; category filters and counts.
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_name_id ON products (category_id, name, id);
+-- Case-insensitive name prefix search (lower(name) LIKE 'abc%').
+CREATE INDEX IF NOT EXISTS idx_products_lower_name_pattern ON products (lower(name) text_pattern_ops);
+-- The below-min report and lowStock filter only ever read flagged rows.
+DROP INDEX IF EXISTS idx_products_below_min_stock;
+CREATE INDEX IF NOT EXISTS idx_products_below_min_stock ON products (category_id, name) WHERE below_min_stock;
+
+-- stock_movements: per-product history newest first, with id as keyset tiebreaker; also deleteByProductId.
+DROP INDEX IF EXISTS idx_stock_movements_product_date;
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_date_id ON stock_movements (product_id, movement_date, id);
+
+-- stock_movement_rollups: windowed top-N scans by type/granularity/bucket; deletes by product.
+CREATE INDEX IF NOT EXISTS idx_stock_movement_rollups_window ON stock_movement_rollups (type, granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_stock_movement_rollups_product ON stock_movement_rollups (product_id);
+
+-- refresh_tokens: token lookups use the unique constraint; deleteByUser needs user_id.
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+
+-- user_categories: the primary key leads with category_id; loading a user's categories goes by user_id.
+CREATE INDEX IF NOT EXISTS idx_user_categories_user_id ON user_categories (user_id);
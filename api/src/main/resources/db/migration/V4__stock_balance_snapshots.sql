@@ -0,0 +1,11 @@
+-- Closing stock balance of every product at each snapshot time. As-of queries start from the
+-- latest snapshot at or before the requested time and apply only the movements after it.
+CREATE TABLE stock_balance_snapshots (
+    snapshot_at timestamp(6) NOT NULL,
+    product_id bigint NOT NULL,
+    quantity integer NOT NULL,
+    PRIMARY KEY (snapshot_at, product_id)
+);
+
+-- Deletes by product.
+CREATE INDEX idx_stock_balance_snapshots_product ON stock_balance_snapshots (product_id);
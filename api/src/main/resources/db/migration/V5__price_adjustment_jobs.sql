@@ -0,0 +1,17 @@
+-- Background price adjustments. last_product_id is the keyset position of the last committed
+-- chunk, so a job interrupted by a restart resumes after it.
+CREATE TABLE price_adjustment_jobs (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    percentage numeric(38, 2) NOT NULL,
+    category_id bigint,
+    status varchar(255) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'CANCELLED', 'FAILED')),
+    last_product_id bigint NOT NULL,
+    updated_count bigint NOT NULL,
+    total_count bigint NOT NULL,
+    error_message varchar(1000),
+    created_at timestamp(6) with time zone NOT NULL,
+    finished_at timestamp(6) with time zone
+);
+
+-- Jobs left RUNNING are looked up on startup.
+CREATE INDEX idx_price_adjustment_jobs_status ON price_adjustment_jobs (status);
@@ -0,0 +1,10 @@
+-- Transactional outbox for downstream systems. Rows are written by the transaction that made the
+-- change and deleted by the relay once delivered; relays on several nodes claim disjoint batches
+-- with FOR UPDATE SKIP LOCKED in id order, so the primary key is the only index needed.
+CREATE TABLE outbox_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type varchar(64) NOT NULL,
+    aggregate_id bigint NOT NULL,
+    payload jsonb NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL DEFAULT now()
+);
@@ -0,0 +1,57 @@
+package br.inventory.control.api;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Starts an embedded PostgreSQL migrated with the application's Flyway scripts before the test
+ * class and closes it afterwards. Register it on a static field with {@code @RegisterExtension};
+ * it is started before the class's own {@code @BeforeAll} methods run.
+ */
+public class EmbeddedPostgresExtension implements BeforeAllCallback, AfterAllCallback {
+
+    private String seedTarget;
+    private Consumer<JdbcTemplate> seed;
+    private EmbeddedPostgres postgres;
+
+    /**
+     * Migrates only up to {@code target} first and runs {@code seed} there, for tests that need
+     * rows in place before a later migration rewrites the schema.
+     */
+    public EmbeddedPostgresExtension seedAt(String target, Consumer<JdbcTemplate> seed) {
+        this.seedTarget = target;
+        this.seed = seed;
+        return this;
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = getDataSource();
+        if (seed != null) {
+            Flyway.configure().dataSource(dataSource).target(seedTarget).load().migrate();
+            seed.accept(new JdbcTemplate(dataSource));
+        }
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        postgres.close();
+    }
+
+    public DataSource getDataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    public String getJdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+}
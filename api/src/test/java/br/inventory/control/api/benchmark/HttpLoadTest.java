@@ -0,0 +1,403 @@
+package br.inventory.control.api.benchmark;
+
+import br.inventory.control.api.repository.StockMovementRollupRepository;
+import br.inventory.control.api.service.StockMovementPartitionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Drives a mix of login, product, stock movement and report requests from concurrent virtual users
+ * against the running API on an embedded PostgreSQL seeded with a synthetic catalog and movement
+ * history, then reports throughput and p50/p95/p99 latency per endpoint. Runs only with the
+ * {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -P load-test [-Dloadtest.users=200] [-Dloadtest.duration-seconds=120] [-Dloadtest.products=100000]
+ * </pre>
+ * <p>
+ * Results are written to {@code target/load-test-result.json}. When {@code loadtest.baseline}
+ * ({@code target/load-test-baseline.json} by default) exists the run fails if an endpoint's p95 or p99
+ * grew, or its throughput fell, by more than {@code loadtest.tolerance}; when it does not exist, or
+ * with {@code -Dloadtest.record-baseline=true}, the results become the new baseline. Baselines only
+ * compare runs with the same settings on the same hardware, so they are not committed; to keep one
+ * across {@code mvn clean}, point {@code -Dloadtest.baseline} at a file outside the source tree.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+class HttpLoadTest {
+
+    private static final int CATEGORIES = Integer.getInteger("loadtest.categories", 50);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 20_000);
+    private static final int MOVEMENTS = Integer.getInteger("loadtest.movements", 500_000);
+    private static final int HISTORY_DAYS = Integer.getInteger("loadtest.history-days", 180);
+    private static final int USERS = Integer.getInteger("loadtest.users", 50);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+    private static final double LATENCY_SLACK_MS = Double.parseDouble(System.getProperty("loadtest.latency-slack-ms", "2"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final Path BASELINE = Path.of(System.getProperty("loadtest.baseline", "target/load-test-baseline.json"));
+    private static final Path RESULT = Path.of("target", "load-test-result.json");
+    private static final String PASSWORD = "loadtest123";
+
+    // Request mix, as relative weights.
+    private static final Map<String, Integer> MIX = mix();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    private static Map<String, Integer> mix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("POST /api/auth/login", 2);
+        mix.put("GET /api/products", 25);
+        mix.put("GET /api/products/{id}", 15);
+        mix.put("POST /api/stock-movements/entry", 15);
+        mix.put("POST /api/stock-movements/exit", 15);
+        mix.put("GET /api/reports/stock-balance", 8);
+        mix.put("GET /api/reports/below-min-stock", 7);
+        mix.put("GET /api/reports/top-movements", 8);
+        mix.put("GET /api/reports/price-list", 5);
+        return mix;
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres postgres = Postgres.INSTANCE;
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("jwt.secret", () -> "bG9hZC10ZXN0LWxvYWQtdGVzdC1sb2FkLXRlc3QtbG9hZC10ZXN0LWxvYWQtdGVzdA==");
+        registry.add("jwt.expiration.ms", () -> "3600000");
+        registry.add("jwt.refresh.expiration.ms", () -> "3600000");
+        registry.add("logging.level.root", () -> "WARN");
+    }
+
+    // Started on first use, so disabled runs never start a database.
+    private static final class Postgres {
+        private static final EmbeddedPostgres INSTANCE = start();
+
+        private static EmbeddedPostgres start() {
+            try {
+                return EmbeddedPostgres.builder().setServerConfig("max_connections", "300").start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate, @Autowired PasswordEncoder passwordEncoder,
+                     @Autowired StockMovementPartitionService partitionService,
+                     @Autowired StockMovementRollupRepository rollupRepository, @Autowired TransactionTemplate transactionTemplate) {
+        partitionService.ensurePartitions(LocalDate.now().minusDays(HISTORY_DAYS), LocalDate.now());
+
+        jdbcTemplate.update("INSERT INTO categories (id, name) SELECT g, 'Category ' || g FROM generate_series(1, ?) g", CATEGORIES);
+        // Product n belongs to category 1 + n % CATEGORIES.
+        jdbcTemplate.update("INSERT INTO products (id, name, unit_price, unit_of_measure, quantity_in_stock, min_stock_quantity,"
+                + " max_stock_quantity, category_id, below_min_stock)"
+                + " SELECT g, 'Product ' || lpad(g::text, 7, '0'), 1 + (g % 5000) / 100.0, 'UN', 1000000 + (g * 7) % 100,"
+                + " CASE WHEN g % 20 = 0 THEN 2000000 ELSE 10 END, 5000000, 1 + g % ?, g % 20 = 0"
+                + " FROM generate_series(1, ?) g", CATEGORIES, PRODUCTS);
+        jdbcTemplate.update("INSERT INTO stock_movements (movement_date, product_id, quantity, type)"
+                + " SELECT now() - (g % ?) * interval '1 day' - (g % 24) * interval '1 hour', 1 + (g * 13) % ?, 1 + g % 10,"
+                + " CASE WHEN g % 2 = 0 THEN 'ENTRY' ELSE 'EXIT' END FROM generate_series(1, ?) g", HISTORY_DAYS, PRODUCTS, MOVEMENTS);
+        // Virtual user n is an employee of categories 1 + n % CATEGORIES and 1 + (n + 1) % CATEGORIES.
+        jdbcTemplate.update("INSERT INTO users (email, name, password, role, permissions_version)"
+                + " SELECT 'load' || g || '@example.com', 'Load ' || g, ?, 'EMPLOYEE', 0 FROM generate_series(0, ?) g",
+                passwordEncoder.encode(PASSWORD), USERS - 1);
+        jdbcTemplate.update("INSERT INTO user_categories (user_id, category_id)"
+                + " SELECT u.id, 1 + (n + k) % ? FROM users u, LATERAL (SELECT substring(u.email FROM 'load(\\d+)@')::int) AS v(n),"
+                + " generate_series(0, LEAST(1, ? - 1)) k WHERE u.email LIKE 'load%'", CATEGORIES, CATEGORIES);
+        jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('categories', 'id'), " + CATEGORIES + ")");
+        jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('products', 'id'), " + PRODUCTS + ")");
+        transactionTemplate.execute(status -> rollupRepository.backfillIfEmpty());
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void mixedTrafficStaysWithinBaseline() throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(WARMUP_SECONDS).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(DURATION_SECONDS).toNanos();
+
+        List<Map<String, Samples>> recorded = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<String, Samples>>> users = new ArrayList<>();
+            for (int n = 0; n < USERS; n++) {
+                int user = n;
+                users.add(executor.submit(() -> new VirtualUser(user, measureFrom, measureUntil).run()));
+            }
+            for (Future<Map<String, Samples>> user : users) {
+                recorded.add(user.get());
+            }
+        }
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Map<String, Samples> samples : recorded) {
+            samples.forEach((endpoint, endpointSamples) -> merged.computeIfAbsent(endpoint, key -> new Samples()).addAll(endpointSamples));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings());
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        merged.forEach((endpoint, samples) -> endpoints.put(endpoint, samples.summarize(DURATION_SECONDS)));
+        result.put("endpoints", endpoints);
+
+        Files.createDirectories(RESULT.getParent());
+        objectMapper.writeValue(RESULT.toFile(), result);
+        print(endpoints);
+
+        List<String> problems = new ArrayList<>();
+        endpoints.forEach((endpoint, endpointResult) -> {
+            if (endpointResult.errorRate() > MAX_ERROR_RATE) {
+                problems.add(endpoint + ": error rate " + format(endpointResult.errorRate() * 100) + "%");
+            }
+        });
+        if (Boolean.getBoolean("loadtest.record-baseline") || !Files.exists(BASELINE)) {
+            if (BASELINE.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+            }
+            objectMapper.writeValue(BASELINE.toFile(), result);
+            System.out.println("Recorded load test baseline in " + BASELINE.toAbsolutePath());
+        } else {
+            problems.addAll(compareWithBaseline(objectMapper.readTree(BASELINE.toFile()), endpoints));
+        }
+        if (!problems.isEmpty()) {
+            fail("Load test regressed:\n" + String.join("\n", problems));
+        }
+    }
+
+    private List<String> compareWithBaseline(JsonNode baseline, Map<String, EndpointResult> endpoints) {
+        if (!baseline.path("settings").equals(objectMapper.valueToTree(settings()))) {
+            return List.of("Baseline " + BASELINE + " was recorded with other settings " + baseline.path("settings")
+                    + "; record it again with -Dloadtest.record-baseline=true");
+        }
+        List<String> problems = new ArrayList<>();
+        endpoints.forEach((endpoint, current) -> {
+            JsonNode previous = baseline.path("endpoints").path(endpoint);
+            if (previous.isMissingNode()) {
+                return;
+            }
+            checkLatency(problems, endpoint, "p95", current.p95Ms(), previous.path("p95Ms").asDouble());
+            checkLatency(problems, endpoint, "p99", current.p99Ms(), previous.path("p99Ms").asDouble());
+            double minimumThroughput = previous.path("throughputPerSecond").asDouble() * (1 - TOLERANCE);
+            if (current.throughputPerSecond() < minimumThroughput) {
+                problems.add(endpoint + ": throughput " + format(current.throughputPerSecond()) + "/s, baseline "
+                        + format(previous.path("throughputPerSecond").asDouble()) + "/s");
+            }
+        });
+        return problems;
+    }
+
+    private static void checkLatency(List<String> problems, String endpoint, String percentile, double current, double baseline) {
+        if (current > baseline * (1 + TOLERANCE) + LATENCY_SLACK_MS) {
+            problems.add(endpoint + ": " + percentile + " " + format(current) + " ms, baseline " + format(baseline) + " ms");
+        }
+    }
+
+    private static Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("categories", CATEGORIES);
+        settings.put("products", PRODUCTS);
+        settings.put("movements", MOVEMENTS);
+        settings.put("historyDays", HISTORY_DAYS);
+        settings.put("users", USERS);
+        settings.put("durationSeconds", DURATION_SECONDS);
+        return settings;
+    }
+
+    private static void print(Map<String, EndpointResult> endpoints) {
+        StringBuilder table = new StringBuilder(String.format("%n%-36s %9s %7s %10s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms"));
+        endpoints.forEach((endpoint, result) -> table.append(String.format("%-36s %9d %7d %10.1f %9.2f %9.2f %9.2f%n", endpoint,
+                result.requests(), result.errors(), result.throughputPerSecond(), result.p50Ms(), result.p95Ms(), result.p99Ms())));
+        System.out.println(table);
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+
+    record EndpointResult(long requests, long errors, double errorRate, double throughputPerSecond,
+                          double p50Ms, double p95Ms, double p99Ms) {
+    }
+
+    // Latencies of one endpoint in nanoseconds, kept by a single virtual user until merged.
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        private void add(long latencyNanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(size + other.size, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        private EndpointResult summarize(int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new EndpointResult(size, errors, size == 0 ? 0 : (double) errors / size, (double) size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    private final class VirtualUser {
+        private final String email;
+        private final int[] categories;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final Map<String, Samples> samples = new LinkedHashMap<>();
+        private final int totalWeight = MIX.values().stream().mapToInt(Integer::intValue).sum();
+        private String token;
+
+        private VirtualUser(int n, long measureFrom, long measureUntil) {
+            this.email = "load" + n + "@example.com";
+            this.categories = CATEGORIES == 1 ? new int[]{1} : new int[]{1 + n % CATEGORIES, 1 + (n + 1) % CATEGORIES};
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        private Map<String, Samples> run() throws Exception {
+            login(System.nanoTime());
+            long now;
+            while ((now = System.nanoTime()) < measureUntil) {
+                String endpoint = pickEndpoint();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int category = categories[random.nextInt(categories.length)];
+                String movement = "{\"productId\":" + productIn(category) + ",\"quantity\":" + (1 + random.nextInt(5)) + "}";
+                switch (endpoint) {
+                    case "POST /api/auth/login" -> login(now);
+                    case "GET /api/products" -> send(endpoint, now, get("/api/products?size=50&categoryId=" + category));
+                    case "GET /api/products/{id}" -> send(endpoint, now, get("/api/products/" + productIn(category)));
+                    case "POST /api/stock-movements/entry" -> send(endpoint, now, post("/api/stock-movements/entry", movement));
+                    case "POST /api/stock-movements/exit" -> send(endpoint, now, post("/api/stock-movements/exit", movement));
+                    case "GET /api/reports/stock-balance" -> send(endpoint, now, get("/api/reports/stock-balance?categoryId=" + category));
+                    case "GET /api/reports/below-min-stock" -> send(endpoint, now, get("/api/reports/below-min-stock"));
+                    case "GET /api/reports/top-movements" -> send(endpoint, now, get("/api/reports/top-movements?type=EXIT&window=7d"));
+                    case "GET /api/reports/price-list" -> send(endpoint, now, get("/api/reports/price-list"));
+                    default -> throw new IllegalStateException(endpoint);
+                }
+            }
+            return samples;
+        }
+
+        private String pickEndpoint() {
+            int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        private long productIn(int category) {
+            long perCategory = Math.max(1, PRODUCTS / CATEGORIES);
+            long id = (category - 1) + CATEGORIES * ThreadLocalRandom.current().nextLong(perCategory);
+            return id == 0 ? CATEGORIES : id;
+        }
+
+        private void login(long started) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            record("POST /api/auth/login", started, response.statusCode());
+            if (response.statusCode() == 200) {
+                token = objectMapper.readTree(response.body()).path("accessToken").asText();
+            } else if (token == null) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode() + " " + response.body());
+            }
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).GET().build();
+        }
+
+        private HttpRequest post(String path, String body) {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private void send(String endpoint, long started, HttpRequest request) throws Exception {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            record(endpoint, started, response.statusCode());
+        }
+
+        private void record(String endpoint, long started, int status) {
+            if (started >= measureFrom) {
+                samples.computeIfAbsent(endpoint, key -> new Samples()).add(System.nanoTime() - started, status >= 400);
+            }
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+}
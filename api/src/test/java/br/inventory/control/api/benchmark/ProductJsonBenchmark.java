@@ -0,0 +1,68 @@
+package br.inventory.control.api.benchmark;
+
+import br.inventory.control.api.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of product lists as the product endpoints write them, with an ObjectMapper built
+ * the way Spring MVC builds its own. Run through {@link ApiBenchmarks}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductJsonBenchmark {
+
+    @Param({"50", "1000"})
+    public int products;
+
+    private ObjectMapper objectMapper;
+    private List<ProductDTO> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new ArrayList<>();
+        for (long id = 1; id <= products; id++) {
+            ProductDTO.CategoryInfo category = new ProductDTO.CategoryInfo();
+            category.setId(id % 10);
+            category.setName("Category " + id % 10);
+            ProductDTO product = new ProductDTO();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setUnitPrice(new BigDecimal("19.90"));
+            product.setUnitOfMeasure("UN");
+            product.setQuantityInStock((int) id);
+            product.setMinStockQuantity(5);
+            product.setMaxStockQuantity(500);
+            product.setCategoryId(category.getId());
+            product.setCategory(category);
+            page.add(product);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeProductList() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,121 @@
+package br.inventory.control.api.benchmark;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.model.Category;
+import br.inventory.control.api.model.Product;
+import br.inventory.control.api.model.Role;
+import br.inventory.control.api.service.HotStockService;
+import br.inventory.control.api.service.ProductService;
+import br.inventory.control.api.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService#toDTO} over a page of products, and {@link ProductService#checkPermission}
+ * for an employee assigned to a large number of categories. Hot SKU mode is off, as it is by
+ * default. Run through {@link ApiBenchmarks}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @State(Scope.Benchmark)
+    public static class Mapping {
+        private ProductService productService;
+        private List<Product> page;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            productService = productService(null);
+            page = new ArrayList<>();
+            for (long id = 1; id <= PAGE_SIZE; id++) {
+                Category category = new Category();
+                category.setId(id % 10);
+                category.setName("Category " + id % 10);
+                Product product = new Product();
+                product.setId(id);
+                product.setName("Product " + id);
+                product.setUnitPrice(new BigDecimal("19.90"));
+                product.setUnitOfMeasure("UN");
+                product.setQuantityInStock((int) id);
+                product.setMinStockQuantity(5);
+                product.setMaxStockQuantity(500);
+                product.setCategory(category);
+                page.add(product);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Permission {
+        @Param({"10", "1000", "100000"})
+        public int allowedCategories;
+
+        private ProductService productService;
+        private Long[] categoryIds;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Set<Long> allowed = new HashSet<>();
+            for (long id = 1; id <= allowedCategories; id++) {
+                allowed.add(id * 7);
+            }
+            UserPrincipal user = new UserPrincipal(2L, "employee@example.com", "Employee", Role.EMPLOYEE, allowed);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+            productService = productService(new UserService(null, null, null, null, null, null));
+            categoryIds = allowed.toArray(Long[]::new);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void toDTO(Mapping state, Blackhole blackhole) {
+        for (Product product : state.page) {
+            blackhole.consume(state.productService.toDTO(product));
+        }
+    }
+
+    @Benchmark
+    public Long checkPermission(Permission state) {
+        Long categoryId = state.categoryIds[state.next++ % state.categoryIds.length];
+        state.productService.checkPermission(categoryId);
+        return categoryId;
+    }
+
+    private static ProductService productService(UserService userService) {
+        HotStockService hotStockService = new HotStockService(null, null, null, null, null, null, null);
+        return new ProductService(null, null, null, userService, hotStockService, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,75 @@
+package br.inventory.control.api.benchmark;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.model.Product;
+import br.inventory.control.api.model.Role;
+import br.inventory.control.api.repository.ProductRepository;
+import br.inventory.control.api.service.ReportCacheService;
+import br.inventory.control.api.service.ReportService;
+import br.inventory.control.api.service.UserService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current stock balance report with the report cache off: the per-product BigDecimal valuation
+ * and DTO mapping over products already loaded by the repository. Run through {@link ApiBenchmarks}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockBalanceReportBenchmark {
+
+    @Param({"1000", "100000"})
+    public int products;
+
+    private ReportService reportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= products; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setUnitPrice(BigDecimal.valueOf(100 + id % 10_000, 2));
+            product.setQuantityInStock((int) (id % 1_000));
+            catalog.add(product);
+        }
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findAll()).thenReturn(catalog);
+
+        UserService userService = Mockito.mock(UserService.class);
+        Mockito.when(userService.getAuthenticatedUser())
+                .thenReturn(new UserPrincipal(1L, "admin@example.com", "Admin", Role.ADMIN, Set.of()));
+
+        ReportCacheService reportCacheService = new ReportCacheService();
+        ReflectionTestUtils.setField(reportCacheService, "enabled", false);
+        reportService = new ReportService(productRepository, null, null, userService, reportCacheService);
+    }
+
+    @Benchmark
+    public Object getStockBalance() {
+        return reportService.getStockBalance(null, null);
+    }
+}
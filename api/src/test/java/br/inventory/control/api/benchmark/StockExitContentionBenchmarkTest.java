@@ -0,0 +1,165 @@
+package br.inventory.control.api.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exits per second on a single hot product, comparing the old read-check-write path with the
+ * conditional decrement used by StockMovementService. Runs only against a real PostgreSQL:
+ *
+ * <pre>
+ * mvn test -Dtest=StockExitContentionBenchmarkTest \
+ *     -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/inventory_control_db \
+ *     -Dbenchmark.db.username=inventory_admin -Dbenchmark.db.password=...
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.db.url", matches = ".+")
+class StockExitContentionBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final long DURATION_MS = Long.getLong("benchmark.duration.ms", 10_000);
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    private final String url = System.getProperty("benchmark.db.url");
+    private final String username = System.getProperty("benchmark.db.username", "");
+    private final String password = System.getProperty("benchmark.db.password", "");
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+            statement.execute("CREATE TABLE bench_products (id bigint PRIMARY KEY, name varchar(255), " +
+                    "quantity_in_stock int NOT NULL, min_stock_quantity int NOT NULL, max_stock_quantity int NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void dropTable() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+        }
+    }
+
+    @Test
+    void compareExitStrategies() throws Exception {
+        Result before = run("read-modify-write", this::readModifyWriteExit);
+        Result after = run("conditional-update", this::conditionalExit);
+
+        System.out.printf("%-20s %10s %12s %12s%n", "strategy", "exits/s", "applied", "lost");
+        print(before);
+        print(after);
+    }
+
+    private void readModifyWriteExit(Connection connection) throws SQLException {
+        int quantity;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, name, quantity_in_stock, min_stock_quantity, max_stock_quantity FROM bench_products WHERE id = 1")) {
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                quantity = rs.getInt("quantity_in_stock");
+            }
+        }
+        if (quantity < 1) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE bench_products SET name = ?, quantity_in_stock = ?, min_stock_quantity = ?, max_stock_quantity = ? WHERE id = 1")) {
+            update.setString(1, "hot");
+            update.setInt(2, quantity - 1);
+            update.setInt(3, 0);
+            update.setInt(4, INITIAL_STOCK);
+            update.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private void conditionalExit(Connection connection) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE bench_products SET quantity_in_stock = quantity_in_stock - ? WHERE id = 1 AND quantity_in_stock >= ? " +
+                        "RETURNING id, name, quantity_in_stock, min_stock_quantity, max_stock_quantity")) {
+            update.setInt(1, 1);
+            update.setInt(2, 1);
+            try (ResultSet rs = update.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Insufficient stock");
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private Result run(String name, Exit exit) throws Exception {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE bench_products");
+            statement.execute("INSERT INTO bench_products VALUES (1, 'hot', " + INITIAL_STOCK + ", 0, " + INITIAL_STOCK + ")");
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder applied = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread worker = new Thread(() -> {
+                try (Connection connection = connect()) {
+                    connection.setAutoCommit(false);
+                    ready.countDown();
+                    while (running.get()) {
+                        exit.apply(connection);
+                        applied.increment();
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        ready.await();
+        long start = System.nanoTime();
+        Thread.sleep(DURATION_MS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int remaining;
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT quantity_in_stock FROM bench_products WHERE id = 1")) {
+            rs.next();
+            remaining = rs.getInt(1);
+        }
+        long persisted = INITIAL_STOCK - remaining;
+        return new Result(name, applied.sum() / seconds, applied.sum(), applied.sum() - persisted);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static void print(Result result) {
+        System.out.printf("%-20s %10.0f %12d %12d%n", result.name(), result.exitsPerSecond(), result.applied(), result.lostUpdates());
+    }
+
+    @FunctionalInterface
+    private interface Exit {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private record Result(String name, double exitsPerSecond, long applied, long lostUpdates) {
+    }
+}
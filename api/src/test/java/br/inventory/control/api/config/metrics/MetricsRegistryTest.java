@@ -0,0 +1,78 @@
+package br.inventory.control.api.config.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void histogramBucketsAreCumulativeAndEndWithInf() throws IOException {
+        MetricsRegistry.Histogram histogram = registry.histogram("rows", "Rows per request.", new double[]{1, 5}, "route", "/a");
+        histogram.observe(0);
+        histogram.observe(1);
+        histogram.observe(3);
+        histogram.observe(7.5);
+
+        assertEquals("""
+                # HELP rows Rows per request.
+                # TYPE rows histogram
+                rows_bucket{route="/a",le="1"} 2
+                rows_bucket{route="/a",le="5"} 3
+                rows_bucket{route="/a",le="+Inf"} 4
+                rows_sum{route="/a"} 11.5
+                rows_count{route="/a"} 4
+                """, scrape());
+    }
+
+    @Test
+    void timersRecordSecondsAndUnlabelledMetricsHaveNoBraces() throws IOException {
+        registry.timer("work_seconds", "Work.").record(2500, TimeUnit.MILLISECONDS);
+        registry.counter("jobs_total", "Jobs.").increment(3);
+        registry.gauge("queue", "Queue.", () -> 0.25);
+
+        String scrape = scrape();
+        assertContains(scrape, "jobs_total 3\n");
+        assertContains(scrape, "queue 0.25\n");
+        assertContains(scrape, "work_seconds_bucket{le=\"1\"} 0\n");
+        assertContains(scrape, "work_seconds_bucket{le=\"2.5\"} 1\n");
+        assertContains(scrape, "work_seconds_bucket{le=\"+Inf\"} 1\n");
+        assertContains(scrape, "work_seconds_sum 2.5\n");
+        assertContains(scrape, "# TYPE queue gauge\n");
+    }
+
+    @Test
+    void labelValuesAreEscapedAndSeriesAreReused() throws IOException {
+        MetricsRegistry.Counter counter = registry.counter("errors_total", "Errors.", "message", "say \"hi\"\\\nbye");
+        assertSame(counter, registry.counter("errors_total", "Errors.", "message", "say \"hi\"\\\nbye"));
+        counter.increment();
+
+        assertContains(scrape(), "errors_total{message=\"say \\\"hi\\\"\\\\\\nbye\"} 1\n");
+    }
+
+    @Test
+    void aNameKeepsTheTypeItWasRegisteredWith() {
+        registry.counter("things", "Things.");
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("things", "Things.", () -> 1));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("other_total", "Other.", "unpaired"));
+    }
+
+    private String scrape() throws IOException {
+        StringBuilder out = new StringBuilder();
+        registry.scrape(out);
+        return out.toString();
+    }
+
+    private static void assertContains(String scrape, String expected) {
+        if (!scrape.contains(expected)) {
+            throw new AssertionError("Expected <" + expected + "> in\n" + scrape);
+        }
+    }
+}
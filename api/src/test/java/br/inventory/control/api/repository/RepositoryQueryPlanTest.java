@@ -0,0 +1,340 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.EmbeddedPostgresExtension;
+import br.inventory.control.api.model.MovementType;
+import br.inventory.control.api.model.Product;
+import br.inventory.control.api.service.StockMovementPartitionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs the repository queries against a migrated and seeded embedded PostgreSQL, captures the SQL
+ * and bound parameters they send, and fails when {@code EXPLAIN} shows a sequential scan on any
+ * relation with more than {@value #LARGE_TABLE_ROWS} rows.
+ * <p>
+ * Queries that read whole tables by design are not covered: {@code findAll}, the unscoped price
+ * list and stock balance streams, {@code countProductsByCategory}, {@code refreshBelowMinStockFlags},
+ * the rollup backfill, the all-time top movement ranking and taking or reading a whole-stock balance
+ * snapshot.
+ */
+@SpringBootTest
+class RepositoryQueryPlanTest {
+
+    private static final long LARGE_TABLE_ROWS = 10_000;
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\S+)");
+    private static final List<Long> CATEGORY_IDS = List.of(3L, 7L);
+
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private StockMovementRepository stockMovementRepository;
+    @Autowired private StockMovementRollupRepository rollupRepository;
+    @Autowired private StockBalanceSnapshotRepository snapshotRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private RecordingDataSource dataSource;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("jwt.secret", () -> "cXVlcnktcGxhbi10ZXN0LXF1ZXJ5LXBsYW4tdGVzdC1xdWVyeS1wbGFuLXRlc3Q=");
+        registry.add("jwt.expiration.ms", () -> "60000");
+        registry.add("jwt.refresh.expiration.ms", () -> "60000");
+    }
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate, @Autowired StockMovementPartitionService partitionService,
+                     @Autowired StockMovementRollupRepository rollupRepository, @Autowired StockBalanceSnapshotRepository snapshotRepository,
+                     @Autowired TransactionTemplate transactionTemplate) {
+        partitionService.ensurePartitions(LocalDate.now().minusDays(200), LocalDate.now());
+
+        jdbcTemplate.update("INSERT INTO categories (name) SELECT 'Category ' || g FROM generate_series(1, 50) g");
+        jdbcTemplate.update("INSERT INTO products (name, unit_price, unit_of_measure, quantity_in_stock, min_stock_quantity,"
+                + " max_stock_quantity, category_id, below_min_stock)"
+                + " SELECT 'Product ' || lpad(g::text, 6, '0'), 10.00, 'UN', (g * 7) % 100, 2, 200, 1 + g % 50, (g * 7) % 100 < 2"
+                + " FROM generate_series(1, 50000) g");
+        jdbcTemplate.update("INSERT INTO users (email, name, password, role, permissions_version)"
+                + " SELECT 'user' || g || '@example.com', 'User ' || g, 'x', CASE WHEN g = 1 THEN 'ADMIN' ELSE 'EMPLOYEE' END, 0"
+                + " FROM generate_series(1, 500) g");
+        jdbcTemplate.update("INSERT INTO user_categories (user_id, category_id) SELECT g, 1 + g % 50 FROM generate_series(2, 500) g");
+        jdbcTemplate.update("INSERT INTO refresh_tokens (token, expiry_date, user_id)"
+                + " SELECT md5(g::text), now() + interval '1 day', 1 + g % 500 FROM generate_series(1, 20000) g");
+        jdbcTemplate.update("INSERT INTO stock_movements (movement_date, product_id, quantity, type)"
+                + " SELECT now() - (g % 180) * interval '1 day' - (g % 24) * interval '1 hour', 1 + (g * 13) % 50000, 1 + g % 10,"
+                + " CASE WHEN g % 2 = 0 THEN 'ENTRY' ELSE 'EXIT' END FROM generate_series(1, 300000) g");
+        transactionTemplate.execute(status -> rollupRepository.backfillIfEmpty());
+        for (int daysAgo = 30; daysAgo >= 0; daysAgo--) {
+            LocalDateTime snapshotAt = LocalDate.now().minusDays(daysAgo).atStartOfDay();
+            transactionTemplate.execute(status -> snapshotRepository.takeSnapshot(snapshotAt));
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesAvoidSequentialScansOnLargeTables() {
+        LocalDateTime nextHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("ProductRepository.findByCategoryIdIn", () -> productRepository.findByCategoryIdIn(CATEGORY_IDS));
+        queries.put("ProductRepository.countByCategory", () -> productRepository.countByCategory(categoryRepository.getReferenceById(3L)));
+        queries.put("ProductRepository.findAllByIdForUpdate", () -> productRepository.findAllByIdForUpdate(List.of(10L, 20L, 30L)));
+        queries.put("ProductRepository.countProductsByCategoryFiltered", () -> productRepository.countProductsByCategoryFiltered(CATEGORY_IDS));
+        queries.put("ProductRepository.countByCategoryIds", () -> productRepository.countByCategoryIds(CATEGORY_IDS));
+        queries.put("ProductRepository.findByBelowMinStockTrueOrderByNameAsc", () -> productRepository.findByBelowMinStockTrueOrderByNameAsc());
+        queries.put("ProductRepository.findByBelowMinStockTrueAndCategoryIdInOrderByNameAsc",
+                () -> productRepository.findByBelowMinStockTrueAndCategoryIdInOrderByNameAsc(CATEGORY_IDS));
+        queries.put("ProductRepository.streamPriceListByCategoryIds", () -> {
+            try (var rows = productRepository.streamPriceListByCategoryIds(CATEGORY_IDS)) {
+                rows.count();
+            }
+        });
+        queries.put("ProductRepository.streamStockBalanceByCategoryIds", () -> {
+            try (var rows = productRepository.streamStockBalanceByCategoryIds(CATEGORY_IDS)) {
+                rows.count();
+            }
+        });
+        queries.put("ProductRepository.findBy (first page)", () -> scrollProducts(Specification.unrestricted(), ScrollPosition.keyset()));
+        queries.put("ProductRepository.findBy (category, after cursor)", () -> scrollProducts(
+                ProductSpecifications.inCategories(CATEGORY_IDS).and(ProductSpecifications.inCategory(3L)),
+                ScrollPosition.forward(Map.of("name", "Product 020000", "id", 20000L))));
+        queries.put("ProductRepository.findBy (low stock)", () -> scrollProducts(ProductSpecifications.belowMinStock(), ScrollPosition.keyset()));
+        queries.put("ProductRepository.findBy (name prefix)", () -> scrollProducts(ProductSpecifications.nameStartsWith("product 0123"), ScrollPosition.keyset()));
+        queries.put("ProductRepository.addStock", () -> productRepository.addStock(100L, 1));
+        queries.put("ProductRepository.removeStockIfAvailable", () -> productRepository.removeStockIfAvailable(100L, 1));
+        queries.put("ProductRepository.adjustPricesAfter", () -> productRepository.adjustPricesAfter(20000L, null, BigDecimal.TEN, 500));
+        queries.put("ProductRepository.adjustPricesAfter (category)", () -> productRepository.adjustPricesAfter(20000L, 3L, BigDecimal.TEN, 500));
+        queries.put("ProductRepository.applyStockDeltas", () -> productRepository.applyStockDeltas(Map.of(100L, 1, 200L, -1)));
+
+        queries.put("StockMovementRepository.findHistory", () -> stockMovementRepository.findHistory(100L, null, null, null, null, null, 10));
+        queries.put("StockMovementRepository.findHistory (filtered, after cursor)", () -> stockMovementRepository.findHistory(
+                100L, nextHour.minusDays(90), nextHour, MovementType.EXIT, nextHour.minusDays(30), Long.MAX_VALUE, 50));
+        queries.put("StockMovementRepository.deleteByProductId", () -> stockMovementRepository.deleteByProductId(100L));
+
+        queries.put("StockMovementRollupRepository.findTopProducts (24h)", () -> rollupRepository.findTopProducts(
+                MovementType.ENTRY, nextHour.minusHours(24), nextHour, null, false, 10));
+        queries.put("StockMovementRollupRepository.findTopProducts (7d, categories)", () -> rollupRepository.findTopProducts(
+                MovementType.EXIT, nextHour.minusDays(7), nextHour, CATEGORY_IDS, true, 10));
+        queries.put("StockMovementRollupRepository.deleteByProductId", () -> rollupRepository.deleteByProductId(100L));
+
+        queries.put("StockBalanceSnapshotRepository.findLatestSnapshotAt", () -> snapshotRepository.findLatestSnapshotAt(nextHour.minusDays(3)));
+        queries.put("StockBalanceSnapshotRepository.findBalancesAsOf (product)", () -> snapshotRepository.findBalancesAsOf(
+                nextHour.minusDays(3), lastSnapshotBefore(nextHour.minusDays(3)), 100L, null));
+        queries.put("StockBalanceSnapshotRepository.findBalancesAsOf (categories)", () -> snapshotRepository.findBalancesAsOf(
+                nextHour.minusDays(3), lastSnapshotBefore(nextHour.minusDays(3)), null, CATEGORY_IDS));
+        queries.put("StockBalanceSnapshotRepository.deleteByProductId", () -> snapshotRepository.deleteByProductId(100L));
+
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user42@example.com"));
+        queries.put("UserRepository.findByAllowedCategoriesId", () -> userRepository.findByAllowedCategoriesId(3L));
+        queries.put("RefreshTokenRepository.findByToken", () -> refreshTokenRepository.findByToken("c4ca4238a0b923820dcc509a6f75849b"));
+        queries.put("RefreshTokenRepository.deleteByUser", () -> refreshTokenRepository.deleteByUser(userRepository.getReferenceById(2L)));
+
+        return queries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoLargeSeqScan(query.getValue())));
+    }
+
+    private LocalDateTime lastSnapshotBefore(LocalDateTime asOf) {
+        return snapshotRepository.findLatestSnapshotAt(asOf).orElseThrow();
+    }
+
+    private void scrollProducts(Specification<Product> specification, ScrollPosition position) {
+        productRepository.findBy(specification, query -> query
+                .sortBy(Sort.by("name", "id"))
+                .limit(50)
+                .project("category")
+                .scroll(position));
+    }
+
+    private void assertNoLargeSeqScan(Runnable query) throws SQLException {
+        List<RecordedStatement> statements = dataSource.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        }));
+        assertFalse(statements.isEmpty(), "No statement was captured");
+
+        List<String> problems = new ArrayList<>();
+        try (Connection connection = dataSource.getTargetDataSource().getConnection()) {
+            for (RecordedStatement statement : statements) {
+                String plan = explain(connection, statement);
+                Matcher matcher = SEQ_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    long rows = estimatedRows(connection, matcher.group(1));
+                    if (rows > LARGE_TABLE_ROWS) {
+                        problems.add("Seq Scan on " + matcher.group(1) + " (~" + rows + " rows) for:\n" + statement.sql() + "\n" + plan);
+                    }
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            fail(String.join("\n\n", problems));
+        }
+    }
+
+    private static String explain(Connection connection, RecordedStatement statement) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Object[] call : statement.parameterCalls()) {
+                Method setter = (Method) call[0];
+                try {
+                    setter.invoke(explain, (Object[]) call[1]);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new SQLException("Could not replay parameter " + setter.getName(), e);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static long estimatedRows(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT reltuples::bigint FROM pg_class WHERE relname = ?")) {
+            statement.setString(1, relation);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    record RecordedStatement(String sql, List<Object[]> parameterCalls) {
+    }
+
+    @TestConfiguration
+    static class RecordingConfiguration {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                            ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Wraps the application's DataSource and, while {@link #record} runs, remembers each executed
+     * statement with the parameter setter calls made on it, so it can be replayed under EXPLAIN.
+     */
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        private final ThreadLocal<List<RecordedStatement>> recorded = new ThreadLocal<>();
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        List<RecordedStatement> record(Runnable action) {
+            recorded.set(new ArrayList<>());
+            try {
+                action.run();
+                return recorded.get();
+            } finally {
+                recorded.remove();
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement prepared) {
+                    return wrap(prepared, (String) args[0]);
+                }
+                if (method.getName().equals("createStatement") && result instanceof Statement statement) {
+                    return wrap(statement);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            List<Object[]> parameterCalls = new ArrayList<>();
+            boolean[] captured = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameterCalls.add(new Object[]{method, args.clone()});
+                } else if ((name.startsWith("execute") || name.equals("addBatch")) && (args == null || args.length == 0)
+                        && !captured[0] && recorded.get() != null) {
+                    captured[0] = true;
+                    recorded.get().add(new RecordedStatement(sql, new ArrayList<>(parameterCalls)));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private Statement wrap(Statement statement) {
+            return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql && recorded.get() != null) {
+                    recorded.get().add(new RecordedStatement(sql, List.of()));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package br.inventory.control.api.repository;
+
+import br.inventory.control.api.EmbeddedPostgresExtension;
+import br.inventory.control.api.dto.StockBalanceItemDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks as-of balances against a known movement history, both from a snapshot and walking back
+ * from the current quantity.
+ */
+class StockSnapshotRepositoryImplTest {
+
+    private static final LocalDateTime DAY_1 = LocalDate.now().minusDays(3).atStartOfDay();
+    private static final LocalDateTime DAY_2 = DAY_1.plusDays(1);
+    private static final LocalDateTime DAY_3 = DAY_2.plusDays(1);
+
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static StockSnapshotRepositoryImpl repository;
+
+    @BeforeAll
+    static void setUp() {
+        DataSource dataSource = postgres.getDataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int month = 1; month >= 0; month--) {
+            LocalDate start = LocalDate.now().minusMonths(month).withDayOfMonth(1);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stock_movements_p" + start.toString().substring(0, 7).replace("-", "")
+                    + " PARTITION OF stock_movements FOR VALUES FROM ('" + start + "') TO ('" + start.plusMonths(1) + "')");
+        }
+
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('Tools'), ('Paint')");
+        // Widget: 10 in on day 1, 4 out on day 2, 3 in on day 3 -> 9 on hand. Brush: created later, 5 in on day 3.
+        jdbcTemplate.update("INSERT INTO products (name, unit_price, quantity_in_stock, min_stock_quantity, max_stock_quantity, category_id)"
+                + " VALUES ('Widget', 2.50, 9, 0, 100, 1)");
+        insertMovement(jdbcTemplate, 1, DAY_1.plusHours(9), 10, "ENTRY");
+        insertMovement(jdbcTemplate, 1, DAY_2.plusHours(9), 4, "EXIT");
+        insertMovement(jdbcTemplate, 1, DAY_3.plusHours(9), 3, "ENTRY");
+
+        repository = new StockSnapshotRepositoryImpl(new NamedParameterJdbcTemplate(dataSource));
+        repository.takeSnapshot(DAY_2);
+        jdbcTemplate.update("INSERT INTO products (name, unit_price, quantity_in_stock, min_stock_quantity, max_stock_quantity, category_id)"
+                + " VALUES ('Brush', 1.00, 5, 0, 100, 2)");
+        insertMovement(jdbcTemplate, 2, DAY_3.plusHours(10), 5, "ENTRY");
+    }
+
+    private static void insertMovement(JdbcTemplate jdbcTemplate, long productId, LocalDateTime date, int quantity, String type) {
+        jdbcTemplate.update("INSERT INTO stock_movements (movement_date, product_id, quantity, type) VALUES (?, ?, ?, ?)",
+                Timestamp.valueOf(date), productId, quantity, type);
+    }
+
+    @Test
+    void snapshotHoldsClosingBalanceDerivedFromMovementsAfterIt() {
+        assertEquals(List.of(new StockBalanceItemDTO("Brush", 0, new BigDecimal("0.00")), new StockBalanceItemDTO("Widget", 10, new BigDecimal("25.00"))),
+                repository.findBalancesAsOf(DAY_2, DAY_2, null, null));
+    }
+
+    @Test
+    void appliesMovementsAfterTheSnapshot() {
+        assertEquals(List.of(new StockBalanceItemDTO("Widget", 6, new BigDecimal("15.00"))),
+                repository.findBalancesAsOf(DAY_3, DAY_2, 1L, null));
+        assertEquals(List.of(new StockBalanceItemDTO("Widget", 9, new BigDecimal("22.50"))),
+                repository.findBalancesAsOf(DAY_3.plusHours(12), DAY_2, null, List.of(1L)));
+    }
+
+    @Test
+    void walksBackFromCurrentQuantityWithoutSnapshot() {
+        assertEquals(List.of(new StockBalanceItemDTO("Widget", 0, new BigDecimal("0.00"))),
+                repository.findBalancesAsOf(DAY_1, null, 1L, null));
+        assertEquals(List.of(new StockBalanceItemDTO("Brush", 5, new BigDecimal("5.00"))),
+                repository.findBalancesAsOf(DAY_3.plusHours(12), DAY_2, 2L, null));
+    }
+}
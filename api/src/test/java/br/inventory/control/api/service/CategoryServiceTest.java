@@ -0,0 +1,90 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.dto.CategoryDTO;
+import br.inventory.control.api.model.Category;
+import br.inventory.control.api.model.Role;
+import br.inventory.control.api.model.User;
+import br.inventory.control.api.repository.CategoryRepository;
+import br.inventory.control.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class CategoryServiceTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final CategoryService categoryService = new CategoryService(categoryRepository, productRepository, userService,
+            mock(ReportCacheService.class));
+
+    @Test
+    void listingCategoriesIssuesOneCountQueryRegardlessOfSize() {
+        for (int size : new int[]{1, 10, 200}) {
+            List<Category> categories = categories(size);
+            when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(categories);
+            when(productRepository.countByCategoryIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{1L, 7L}));
+
+            List<CategoryDTO> result = categoryService.getAllCategories();
+
+            assertEquals(size, result.size());
+            assertEquals(7L, result.get(0).getProductCount());
+            if (size > 1) {
+                assertEquals(0L, result.get(1).getProductCount());
+            }
+            verify(categoryRepository, times(1)).findAllByOrderByNameAsc();
+            verify(productRepository, times(1)).countByCategoryIds(anyCollection());
+            verify(productRepository, never()).countByCategory(any());
+            verifyNoMoreInteractions(categoryRepository, productRepository);
+            clearInvocations(categoryRepository, productRepository);
+        }
+    }
+
+    @Test
+    void restrictedListingAlsoUsesOneCountQuery() {
+        User user = restrictedUser();
+        when(userService.getAuthenticatedUser()).thenReturn(UserPrincipal.from(user));
+        when(categoryRepository.findByIdInOrderByNameAsc(anyCollection())).thenReturn(categories(50));
+        when(productRepository.countByCategoryIds(anyCollection())).thenReturn(List.of());
+
+        List<CategoryDTO> result = categoryService.getAllCategoriesForCurrentUser();
+
+        assertEquals(50, result.size());
+        verify(productRepository, times(1)).countByCategoryIds(anyCollection());
+        verify(productRepository, never()).countByCategory(any());
+    }
+
+    private static User restrictedUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("operator@example.com");
+        user.setRole(Role.EMPLOYEE);
+        user.getAllowedCategories().addAll(categories(50));
+        return user;
+    }
+
+    private static List<Category> categories(int size) {
+        List<Category> categories = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            Category category = new Category();
+            category.setId(id);
+            category.setName("Category " + id);
+            categories.add(category);
+        }
+        return categories;
+    }
+}
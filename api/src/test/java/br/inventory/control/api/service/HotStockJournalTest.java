@@ -0,0 +1,76 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.model.MovementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotStockJournalTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 10, 30);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopeningReturnsTheEntriesAfterTheCheckpointInOrder() throws IOException {
+        Path path = directory.resolve("hot.journal");
+        try (HotStockJournal journal = new HotStockJournal(path, 0)) {
+            journal.append(1, MovementType.ENTRY, 5, NOW);
+            journal.append(2, MovementType.EXIT, 3, NOW);
+            journal.append(1, MovementType.EXIT, 1, NOW);
+        }
+
+        try (HotStockJournal journal = new HotStockJournal(path, 1)) {
+            List<HotStockJournal.Entry> pending = journal.drain();
+            assertEquals(List.of(2L, 3L), pending.stream().map(HotStockJournal.Entry::sequence).toList());
+            assertEquals(new HotStockJournal.Entry(2, 2, MovementType.EXIT, 3, NOW), pending.get(0));
+            assertEquals(4, journal.append(3, MovementType.ENTRY, 1, NOW).sequence());
+        }
+    }
+
+    @Test
+    void aTornLastLineIsDroppedAndTruncated() throws IOException {
+        Path path = directory.resolve("hot.journal");
+        try (HotStockJournal journal = new HotStockJournal(path, 0)) {
+            journal.append(1, MovementType.ENTRY, 5, NOW);
+            journal.append(2, MovementType.ENTRY, 7, NOW);
+        }
+        Files.writeString(path, "3;1;EXI", StandardOpenOption.APPEND);
+
+        try (HotStockJournal journal = new HotStockJournal(path, 0)) {
+            assertEquals(2, journal.drain().size());
+        }
+        assertTrue(Files.readString(path).endsWith("\n"));
+        assertEquals(2, Files.readAllLines(path).size());
+    }
+
+    @Test
+    void anAppendAfterATornTailSurvivesTheNextRecovery() throws IOException {
+        Path path = directory.resolve("hot.journal");
+        try (HotStockJournal journal = new HotStockJournal(path, 0)) {
+            journal.append(1, MovementType.ENTRY, 5, NOW);
+        }
+        Files.write(path, "2;1;ENTRY;4;2026-01".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        // Everything parseable is already flushed, so nothing is pending and no compaction follows.
+        try (HotStockJournal journal = new HotStockJournal(path, 1)) {
+            assertTrue(journal.drain().isEmpty());
+            journal.append(1, MovementType.EXIT, 2, NOW);
+        }
+
+        try (HotStockJournal journal = new HotStockJournal(path, 1)) {
+            assertEquals(List.of(new HotStockJournal.Entry(2, 1, MovementType.EXIT, 2, NOW)), journal.drain());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.dto.ReportType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportCacheServiceTest {
+
+    private final ReportCacheService cache = new ReportCacheService();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    void callersWithTheSameScopeShareOneEntry() {
+        load(ReportType.PRICE_LIST, null);
+        load(ReportType.PRICE_LIST, null);
+        load(ReportType.PRICE_LIST, List.of(3L, 7L));
+        load(ReportType.PRICE_LIST, List.of(7L, 3L));
+        load(ReportType.PRICE_LIST, List.of(3L));
+
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.getStats().getHits());
+        assertEquals(3, cache.getStats().getMisses());
+    }
+
+    @Test
+    void writesOnlyEvictOverlappingScopesOfDependentReports() {
+        load(ReportType.STOCK_BALANCE, null);
+        load(ReportType.STOCK_BALANCE, List.of(3L));
+        load(ReportType.STOCK_BALANCE, List.of(7L));
+        load(ReportType.PRICE_LIST, List.of(3L));
+
+        cache.invalidate(EnumSet.of(ReportCacheService.Change.STOCK), List.of(3L));
+        loads.set(0);
+        load(ReportType.STOCK_BALANCE, null);
+        load(ReportType.STOCK_BALANCE, List.of(3L));
+        load(ReportType.STOCK_BALANCE, List.of(7L));
+        load(ReportType.PRICE_LIST, List.of(3L));
+
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void resultComputedAcrossAnInvalidationIsNotKept() {
+        cache.get(ReportType.PRODUCT_COUNT_BY_CATEGORY, null, () -> {
+            cache.invalidate(EnumSet.of(ReportCacheService.Change.CATALOG), List.of(5L));
+            return loads.incrementAndGet();
+        });
+        load(ReportType.PRODUCT_COUNT_BY_CATEGORY, null);
+
+        assertEquals(2, loads.get());
+    }
+
+    private void load(ReportType report, List<Long> scope) {
+        cache.get(report, scope, loads::incrementAndGet);
+    }
+}
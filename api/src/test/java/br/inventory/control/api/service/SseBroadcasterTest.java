@@ -0,0 +1,105 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.config.security.UserPrincipal;
+import br.inventory.control.api.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SseBroadcasterTest {
+
+    private static final UserPrincipal ADMIN = new UserPrincipal(1L, "admin@example.com", "Admin", Role.ADMIN, Set.of());
+
+    private SseBroadcaster broadcaster;
+    private SseBroadcaster.Feed feed;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SseBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "sendThreads", 2);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 5);
+        broadcaster.init();
+        feed = broadcaster.feed(() -> SseEmitter.event().name("reset").data(""));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void slowSubscriberDoesNotHoldUpOthersAndIsResetOnOverflow() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        feed.subscribe(slow, ADMIN);
+        feed.subscribe(fast, ADMIN);
+
+        for (int i = 1; i <= 20; i++) {
+            feed.broadcast(1L, SseEmitter.event().name("stock").data(i));
+            assertTrue(fast.awaitEvents(i));
+        }
+        release.countDown();
+
+        // The first event was in flight while the queue filled; the backlog after it became a reset.
+        assertTrue(slow.awaitEvents(2));
+        assertTrue(slow.events.get(1).contains("event:reset"), slow.events.toString());
+        Thread.sleep(100);
+        assertTrue(slow.events.size() <= 6, slow.events.toString());
+        assertEquals("event:stock\ndata:20\n\n", slow.events.get(slow.events.size() - 1));
+    }
+
+    @Test
+    void heartbeatPingsIdleSubscribers() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        feed.subscribe(emitter, ADMIN);
+
+        broadcaster.heartbeat();
+
+        assertTrue(emitter.awaitEvents(1));
+        assertTrue(emitter.events.get(0).startsWith(":ping"), emitter.events.toString());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder event = new StringBuilder();
+            items.forEach(item -> event.append(item.getData()));
+            events.add(event.toString());
+        }
+
+        boolean awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return events.size() >= count;
+        }
+    }
+}
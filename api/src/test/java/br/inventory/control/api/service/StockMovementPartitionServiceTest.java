@@ -0,0 +1,112 @@
+package br.inventory.control.api.service;
+
+import br.inventory.control.api.EmbeddedPostgresExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the partitioning migration, partition maintenance and retention against an embedded
+ * PostgreSQL, starting from the plain table Hibernate used to create for {@code StockMovement}.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StockMovementPartitionServiceTest {
+
+    private static final YearMonth OLDEST = YearMonth.now().minusMonths(5);
+
+    // Start from the plain table of the baseline, as left behind by ddl-auto=update, then migrate.
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension().seedAt("1", jdbc -> {
+        jdbc.update("INSERT INTO categories (name) VALUES ('Tools')");
+        jdbc.update("INSERT INTO products (name, quantity_in_stock, min_stock_quantity, max_stock_quantity, category_id)"
+                + " VALUES ('Widget', 0, 0, 0, 1)");
+        for (int month = 0; month < 6; month++) {
+            jdbc.update("INSERT INTO stock_movements (movement_date, product_id, quantity, type) VALUES (?, 1, ?, 'ENTRY')",
+                    Timestamp.valueOf(OLDEST.plusMonths(month).atDay(10).atTime(12, 0)), month + 1);
+        }
+    });
+
+    private static JdbcTemplate jdbcTemplate;
+    private static StockMovementPartitionService partitionService;
+
+    @BeforeAll
+    static void setUp() {
+        jdbcTemplate = new JdbcTemplate(postgres.getDataSource());
+        partitionService = new StockMovementPartitionService(jdbcTemplate);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 2);
+        partitionService.init();
+    }
+
+    @Test
+    void migrationConvertsPlainTableKeepingRowsIdsAndForeignKey() {
+        assertTrue(partitionService.isPartitioned());
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movements", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'fkjcaag8ogfjxpwmqypi1wfdaog' AND conrelid = 'stock_movements'::regclass", Integer.class));
+
+        Long id = jdbcTemplate.queryForObject("INSERT INTO stock_movements (movement_date, product_id, quantity, type)"
+                + " VALUES (now(), 1, 1, 'EXIT') RETURNING id", Long.class);
+        assertEquals(7L, id);
+        jdbcTemplate.update("DELETE FROM stock_movements WHERE id = ?", id);
+    }
+
+    @Test
+    void createsPartitionsAheadWithBrinIndex() {
+        List<String> partitions = partitionService.listPartitions();
+        assertTrue(partitions.contains(StockMovementPartitionService.partitionName(YearMonth.now().plusMonths(2))));
+
+        String partition = StockMovementPartitionService.partitionName(YearMonth.now());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE tablename = ? AND indexdef LIKE '%USING brin%'", Integer.class, partition));
+    }
+
+    @Test
+    void dateBoundedQueriesArePruned() {
+        YearMonth month = OLDEST.plusMonths(2);
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM stock_movements WHERE product_id = 1 AND movement_date >= ? AND movement_date < ?",
+                String.class, Timestamp.valueOf(month.atDay(1).atStartOfDay()), Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())));
+
+        assertTrue(plan.contains(StockMovementPartitionService.partitionName(month)), plan);
+        assertFalse(plan.contains(StockMovementPartitionService.partitionName(OLDEST)), plan);
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    void retentionArchivesExpiredPartitionsWithoutBlockingProductDeletes() {
+        jdbcTemplate.update("INSERT INTO products (name, quantity_in_stock, min_stock_quantity, max_stock_quantity, category_id)"
+                + " VALUES ('Gadget', 0, 0, 0, 1)");
+        jdbcTemplate.update("INSERT INTO stock_movements (movement_date, product_id, quantity, type) VALUES (?, 2, 1, 'ENTRY')",
+                Timestamp.valueOf(OLDEST.atDay(20).atTime(12, 0)));
+
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 4);
+        try {
+            partitionService.maintain();
+        } finally {
+            ReflectionTestUtils.setField(partitionService, "retentionMonths", 0);
+        }
+
+        List<String> partitions = partitionService.listPartitions();
+        assertFalse(partitions.contains(StockMovementPartitionService.partitionName(OLDEST)));
+        assertTrue(partitions.contains(StockMovementPartitionService.partitionName(YearMonth.now().minusMonths(4))));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + StockMovementPartitionService.archiveName(OLDEST), Integer.class));
+
+        assertEquals(1, jdbcTemplate.update("DELETE FROM products WHERE name = 'Gadget'"));
+
+        partitionService.ensurePartitions(OLDEST.atDay(1), OLDEST.atDay(1));
+        assertTrue(partitionService.listPartitions().contains(StockMovementPartitionService.partitionName(OLDEST)));
+    }
+}
@@ -0,0 +1,54 @@
+package br.inventory.control.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockCounterTest {
+
+    @Test
+    void exitLargerThanOneStripeGathersFromOthers() {
+        StripedStockCounter counter = new StripedStockCounter(8, 0);
+        for (int i = 0; i < 100; i++) {
+            counter.add(1);
+        }
+
+        assertTrue(counter.tryRemove(100));
+        assertFalse(counter.tryRemove(1));
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void concurrentExitsNeverOversell() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(16, 10_000);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 2_000; j++) {
+                    if (counter.tryRemove(3)) {
+                        accepted.incrementAndGet();
+                    }
+                    if (j % 10 == 0) {
+                        counter.add(1);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long added = 16 * 200;
+        assertEquals(10_000 + added - accepted.get() * 3L, counter.sum());
+        assertTrue(counter.sum() >= 0);
+    }
+}
@@ -25,7 +25,6 @@ import { Input } from "@/components/ui/input";
 import { Button } from "@/components/ui/button";
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
 import { Separator } from "@/components/ui/separator";
-import { api } from "@/lib/axios";
 import { productsService } from "@/services/products";
 import type { Product } from "@/types/product";
 
@@ -80,9 +79,10 @@ export function AdjustPriceModal({
   const handleAdjustPrices = async (data: { percentage: number }) => {
     try {
       setIsAdjusting(true);
-      await api.post("/products/adjust-price", {
-        percentage: data.percentage,
-      });
+      const job = await productsService.adjustPrices(data.percentage);
+      if (job.status !== "COMPLETED") {
+        throw new Error(job.errorMessage ?? `Reajuste ${job.status}`);
+      }
 
       onPricesAdjusted();
       setIsOpen(false);
@@ -1,10 +1,26 @@
 import { api } from "@/lib/axios";
-import type { Product, CreateProductData } from "@/types/product";
+import type {
+  Product,
+  CreateProductData,
+  ProductPage,
+  PriceAdjustmentJob,
+} from "@/types/product";
+
+const PAGE_SIZE = 500;
+const JOB_POLL_INTERVAL_MS = 1000;
 
 export const productsService = {
   getAll: async (): Promise<Product[]> => {
-    const response = await api.get("/products");
-    return response.data;
+    const products: Product[] = [];
+    let cursor: string | null = null;
+    do {
+      const response: { data: ProductPage } = await api.get("/products", {
+        params: { cursor: cursor ?? undefined, size: PAGE_SIZE },
+      });
+      products.push(...response.data.items);
+      cursor = response.data.nextCursor;
+    } while (cursor);
+    return products;
   },
 
   create: async (data: CreateProductData): Promise<Product> => {
@@ -23,4 +39,19 @@ export const productsService = {
   delete: async (id: string): Promise<void> => {
     await api.delete(`/products/${id}`);
   },
+
+  // Price adjustments run as a background job; resolves once the job stops running.
+  adjustPrices: async (percentage: number): Promise<PriceAdjustmentJob> => {
+    let response: { data: PriceAdjustmentJob } = await api.post(
+      "/products/adjust-price",
+      { percentage }
+    );
+    while (response.data.status === "RUNNING") {
+      await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+      response = await api.get(
+        `/products/adjust-price/jobs/${response.data.id}`
+      );
+    }
+    return response.data;
+  },
 };
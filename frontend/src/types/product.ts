@@ -12,6 +12,11 @@ export interface Product {
   };
 }
 
+export interface ProductPage {
+  items: Product[];
+  nextCursor: string | null;
+}
+
 export interface CreateProductData {
   id?: string;
   name: string;
@@ -22,3 +27,21 @@ export interface CreateProductData {
   maxStockQuantity: number;
   categoryId: number;
 }
+
+export type PriceAdjustmentJobStatus =
+  | "RUNNING"
+  | "COMPLETED"
+  | "CANCELLED"
+  | "FAILED";
+
+export interface PriceAdjustmentJob {
+  id: number;
+  percentage: number;
+  categoryId: number | null;
+  status: PriceAdjustmentJobStatus;
+  updatedCount: number;
+  totalCount: number;
+  errorMessage: string | null;
+  createdAt: string;
+  finishedAt: string | null;
+}